@@ -0,0 +1,108 @@
+package com.assessment.postcode.benchmark;
+
+import com.assessment.postcode.PostcodeApplication;
+import com.assessment.postcode.index.PostcodeIndex;
+import com.assessment.postcode.model.PostcodeCoordinatesRq;
+import com.assessment.postcode.service.PostcodeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to apply {@code updates} coordinate corrections, either one
+ * {@link PostcodeService#updateCoordinatesByPostcode} call per postcode as a loop of
+ * {@code PATCH} requests would ({@code mode=single}) or one
+ * {@link PostcodeService#updateCoordinates} call ({@code mode=bulk}). The in-memory index is
+ * enabled, as in the default configuration. Invocations alternate between two sets of
+ * corrections, so every call changes the rows it touches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CoordinateUpdateBenchmark {
+
+  @Param({"single", "bulk"})
+  private String mode;
+
+  @Param("100000")
+  private int rows;
+
+  @Param("10000")
+  private int updates;
+
+  private ConfigurableApplicationContext context;
+  private PostcodeService postcodeService;
+  private List<List<PostcodeCoordinatesRq>> corrections;
+  private int invocation;
+
+  @Setup(Level.Trial)
+  public void startApplication() {
+    this.context = new SpringApplicationBuilder(PostcodeApplication.class).run(
+      "--server.port=0",
+      "--spring.datasource.url=jdbc:h2:mem:update;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+      "--spring.jpa.show-sql=false",
+      "--spring.jpa.properties.hibernate.format_sql=false",
+      "--spring.devtools.restart.enabled=false",
+      "--logging.level.root=WARN",
+      "--postcode.index.enabled=true");
+
+    SyntheticPostcodes.insert(this.context.getBean(JdbcTemplate.class), this.rows);
+    this.context.getBean(PostcodeIndex.class).reload();
+    this.postcodeService = this.context.getBean(PostcodeService.class);
+
+    this.corrections = List.of(this.corrections(0.0001), this.corrections(0.0002));
+  }
+
+  private List<PostcodeCoordinatesRq> corrections(double offset) {
+    var random = new SplittableRandom(7);
+    var corrections = new ArrayList<PostcodeCoordinatesRq>(this.updates);
+    for (int i = 0; i < this.updates; i++) {
+      int row = random.nextInt(this.rows);
+      var point = SyntheticPostcodes.coordinates(row);
+      corrections.add(new PostcodeCoordinatesRq(SyntheticPostcodes.postcode(row),
+        point[0] + offset, point[1] - offset));
+    }
+    return corrections;
+  }
+
+  @TearDown(Level.Trial)
+  public void stopApplication() {
+    this.context.close();
+  }
+
+  @Benchmark
+  public int applyCorrections() {
+    var corrections = this.corrections.get(this.invocation++ & 1);
+    if ("bulk".equals(this.mode)) {
+      return this.postcodeService.updateCoordinates(corrections).getUpdated();
+    }
+    int updated = 0;
+    for (var correction : corrections) {
+      this.postcodeService.updateCoordinatesByPostcode(correction.getPostcode(),
+        correction.getLatitude(), correction.getLongitude());
+      updated++;
+    }
+    return updated;
+  }
+}
@@ -0,0 +1,76 @@
+package com.assessment.postcode.benchmark;
+
+import com.assessment.postcode.batch.MappedCsvItemReader;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses a whole synthetic import file with {@link MappedCsvItemReader}. The {@code rows}
+ * counter reports parsing throughput in rows per second; pass {@code -p rows=2000000} for a
+ * file the size of the full UK dataset.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvImportBenchmark {
+
+  @Param("100000")
+  private int rows;
+
+  private Path csv;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class RowCounter {
+
+    public long rows;
+  }
+
+  @Setup(Level.Trial)
+  public void writeCsv() throws IOException {
+    this.csv = Files.createTempFile("postcodes-benchmark-", ".csv");
+    SyntheticPostcodes.writeCsv(this.csv, this.rows);
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteCsv() throws IOException {
+    Files.deleteIfExists(this.csv);
+  }
+
+  @Benchmark
+  public long parse(RowCounter counter) throws Exception {
+    var reader = new MappedCsvItemReader(this.csv);
+    long read = 0;
+    reader.open(new ExecutionContext());
+    try {
+      while (reader.read() != null) {
+        read++;
+      }
+    } finally {
+      reader.close();
+    }
+    counter.rows += read;
+    return read;
+  }
+}
@@ -0,0 +1,47 @@
+package com.assessment.postcode.benchmark;
+
+import com.assessment.postcode.dto.UkPostcodeDto;
+import com.assessment.postcode.model.DistanceApiRs;
+import com.assessment.postcode.model.GetDistanceApiRs;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the {@code GET /distance} response with an {@link ObjectMapper} built the way
+ * Spring MVC builds its own.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DistanceJsonBenchmark {
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+  private final GetDistanceApiRs response = GetDistanceApiRs.builder()
+    .postcode1(new UkPostcodeDto(1, "AB10 1XG", 57.144165, -2.114848))
+    .postcode2(new UkPostcodeDto(2, "AB10 6RN", 57.13788, -2.121487))
+    .distance(DistanceApiRs.builder()
+      .unit("km")
+      .value(0.8038616513839446)
+      .build())
+    .build();
+
+  @Benchmark
+  public byte[] serialize() throws JsonProcessingException {
+    return this.objectMapper.writeValueAsBytes(this.response);
+  }
+}
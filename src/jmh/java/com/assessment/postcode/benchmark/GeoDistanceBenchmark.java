@@ -0,0 +1,62 @@
+package com.assessment.postcode.benchmark;
+
+import com.assessment.postcode.service.GeoDistance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distance as computed by {@code PostcodeService.calculateDistanceInKm}, which delegates to
+ * {@link GeoDistance}: the haversine of {@code mode=exact} and the equirectangular approximation
+ * of {@code mode=fast}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GeoDistanceBenchmark {
+
+  private static final int POINTS = 1024;
+
+  private final double[] latitudes = new double[POINTS];
+  private final double[] longitudes = new double[POINTS];
+  private int next;
+
+  @Setup
+  public void setUp() {
+    for (int i = 0; i < POINTS; i++) {
+      var point = SyntheticPostcodes.coordinates(i);
+      this.latitudes[i] = point[0];
+      this.longitudes[i] = point[1];
+    }
+  }
+
+  @Benchmark
+  public double calculateDistanceInKm() {
+    int from = this.next;
+    int to = (from + 1) & (POINTS - 1);
+    this.next = to;
+    return GeoDistance.haversineKm(this.latitudes[from], this.longitudes[from],
+      this.latitudes[to], this.longitudes[to]);
+  }
+
+  @Benchmark
+  public double calculateFastDistanceInKm() {
+    int from = this.next;
+    int to = (from + 1) & (POINTS - 1);
+    this.next = to;
+    return GeoDistance.equirectangularKm(this.latitudes[from], this.longitudes[from],
+      this.latitudes[to], this.longitudes[to]);
+  }
+}
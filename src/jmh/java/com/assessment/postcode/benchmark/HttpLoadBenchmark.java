@@ -0,0 +1,118 @@
+package com.assessment.postcode.benchmark;
+
+import com.assessment.postcode.PostcodeApplication;
+import com.assessment.postcode.security.ApiKeyAuthenticationFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of {@code GET /api/v1/postcodes/uk/{postcode}} over HTTP with many concurrent
+ * clients. {@code threading=virtual} starts the application with the {@code virtual-threads}
+ * profile and needs Java 21 ({@code -Pbenchmark,java21}); {@code platform} is the default
+ * Tomcat pool. Lookups go to the database, with the index and the lookup cache off, so requests
+ * block on JDBC. Sample-time mode reports p99 alongside throughput; raise {@code -t} past
+ * Tomcat's 200 worker threads to see where the platform pool caps concurrency.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(256)
+@State(Scope.Benchmark)
+public class HttpLoadBenchmark {
+
+  @Param({"platform", "virtual"})
+  private String threading;
+
+  @Param("100000")
+  private int rows;
+
+  private ConfigurableApplicationContext context;
+  private HttpClient client;
+  private String baseUri;
+
+  @State(Scope.Thread)
+  public static class Keys {
+
+    private final SplittableRandom random = new SplittableRandom();
+
+    String next(HttpLoadBenchmark benchmark) {
+      return URLEncoder.encode(SyntheticPostcodes.postcode(this.random.nextInt(benchmark.rows)),
+        StandardCharsets.UTF_8).replace("+", "%20");
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void startApplication() {
+    boolean virtual = "virtual".equals(this.threading);
+    if (virtual && Runtime.version().feature() < 21) {
+      throw new IllegalStateException("threading=virtual needs Java 21, running on "
+        + Runtime.version());
+    }
+
+    this.context = new SpringApplicationBuilder(PostcodeApplication.class).run(
+      "--server.port=0",
+      "--spring.profiles.active=dev,api-key-dev" + (virtual ? ",virtual-threads" : ""),
+      "--spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+      "--spring.jpa.show-sql=false",
+      "--spring.jpa.properties.hibernate.format_sql=false",
+      "--spring.devtools.restart.enabled=false",
+      "--logging.level.root=WARN",
+      "--postcode.index.enabled=false",
+      "--postcode.cache.maximum-size=0",
+      "--postcode.security.mode=api-key");
+    SyntheticPostcodes.insert(this.context.getBean(JdbcTemplate.class), this.rows);
+
+    int port = ((WebServerApplicationContext) this.context).getWebServer().getPort();
+    this.baseUri = "http://localhost:" + port + "/api/v1/postcodes/uk/";
+    this.client = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(Duration.ofSeconds(5))
+      .build();
+  }
+
+  @TearDown(Level.Trial)
+  public void stopApplication() {
+    this.context.close();
+  }
+
+  @Benchmark
+  public int getByPostcode(Keys keys) throws Exception {
+    var request = HttpRequest.newBuilder(URI.create(this.baseUri + keys.next(this)))
+      .header(ApiKeyAuthenticationFilter.HEADER, "dev-api-key")
+      .GET()
+      .build();
+    var response = this.client.send(request, HttpResponse.BodyHandlers.discarding());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("Unexpected status " + response.statusCode());
+    }
+    return response.statusCode();
+  }
+}
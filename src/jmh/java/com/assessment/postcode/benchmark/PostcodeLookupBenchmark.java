@@ -0,0 +1,89 @@
+package com.assessment.postcode.benchmark;
+
+import com.assessment.postcode.PostcodeApplication;
+import com.assessment.postcode.dto.UkPostcodeDto;
+import com.assessment.postcode.index.PostcodeIndex;
+import com.assessment.postcode.service.PostcodeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PostcodeService#getByPostcode} against an in-memory H2 database filled with synthetic
+ * rows. {@code source} selects what serves the lookup: {@code repository} disables the index and
+ * sizes the cache to zero so every call runs the JPA query that selects the DTO, {@code cache}
+ * adds the lookup cache, and {@code index} loads the in-memory index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class PostcodeLookupBenchmark {
+
+  @Param({"repository", "cache", "index"})
+  private String source;
+
+  @Param("100000")
+  private int rows;
+
+  private ConfigurableApplicationContext context;
+  private PostcodeService postcodeService;
+
+  @State(Scope.Thread)
+  public static class Keys {
+
+    private final SplittableRandom random = new SplittableRandom();
+
+    String next(PostcodeLookupBenchmark benchmark) {
+      return SyntheticPostcodes.postcode(this.random.nextInt(benchmark.rows));
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void startApplication() {
+    // command-line arguments, because default properties would lose to application.yml
+    this.context = new SpringApplicationBuilder(PostcodeApplication.class).run(
+      "--server.port=0",
+      "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+      "--spring.jpa.show-sql=false",
+      "--spring.jpa.properties.hibernate.format_sql=false",
+      "--spring.devtools.restart.enabled=false",
+      "--logging.level.root=WARN",
+      "--postcode.index.enabled=" + "index".equals(this.source),
+      "--postcode.cache.maximum-size=" + ("cache".equals(this.source) ? this.rows : 0));
+
+    SyntheticPostcodes.insert(this.context.getBean(JdbcTemplate.class), this.rows);
+    this.context.getBean(PostcodeIndex.class).reload();
+    this.postcodeService = this.context.getBean(PostcodeService.class);
+  }
+
+  @TearDown(Level.Trial)
+  public void stopApplication() {
+    this.context.close();
+  }
+
+  @Benchmark
+  public UkPostcodeDto getByPostcode(Keys keys) {
+    return this.postcodeService.getByPostcode(keys.next(this));
+  }
+}
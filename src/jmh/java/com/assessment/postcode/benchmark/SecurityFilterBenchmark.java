@@ -0,0 +1,110 @@
+package com.assessment.postcode.benchmark;
+
+import com.assessment.postcode.PostcodeApplication;
+import com.assessment.postcode.security.ApiKeyAuthenticationFilter;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.MappingMatch;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletMapping;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the Spring Security filter chain alone for one {@code /api/v1/postcodes/**} request,
+ * with {@code postcode.security.mode} set to {@code basic} (HTTP Basic through the default chain)
+ * or {@code api-key} (stateless chain). The request ends at a no-op filter chain, so controller
+ * work is excluded. The {@code sessions} counter reports HTTP sessions created in each iteration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class SecurityFilterBenchmark {
+
+  private static final String PATH = "/api/v1/postcodes/uk/AB10 1XG";
+  private static final FilterChain NO_OP = (request, response) -> {
+  };
+
+  @Param({"basic", "api-key"})
+  private String mode;
+
+  private ConfigurableApplicationContext context;
+  private Filter securityFilterChain;
+  private ServletContext servletContext;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Sessions {
+
+    public long sessions;
+  }
+
+  @Setup(Level.Trial)
+  public void startApplication() {
+    this.context = new SpringApplicationBuilder(PostcodeApplication.class).run(
+      "--server.port=0",
+      "--spring.profiles.active=dev,api-key-dev",
+      "--spring.datasource.url=jdbc:h2:mem:security;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+      "--spring.jpa.show-sql=false",
+      "--spring.devtools.restart.enabled=false",
+      "--logging.level.root=WARN",
+      "--postcode.index.enabled=false",
+      "--postcode.security.mode=" + this.mode);
+    this.securityFilterChain = this.context.getBean("springSecurityFilterChain", Filter.class);
+    this.servletContext = this.context.getBean(ServletContext.class);
+  }
+
+  @TearDown(Level.Trial)
+  public void stopApplication() {
+    this.context.close();
+  }
+
+  @Benchmark
+  public int authenticate(Sessions sessions) throws Exception {
+    var request = new MockHttpServletRequest(this.servletContext, "GET", PATH);
+    // mapped the way Tomcat maps a request to the dispatcher servlet
+    request.setServletPath(PATH);
+    request.setHttpServletMapping(
+      new MockHttpServletMapping("", "/", "dispatcherServlet", MappingMatch.DEFAULT));
+    if ("api-key".equals(this.mode)) {
+      request.addHeader(ApiKeyAuthenticationFilter.HEADER, "dev-api-key");
+    } else {
+      request.addHeader(HttpHeaders.AUTHORIZATION, "Basic " + Base64.getEncoder()
+        .encodeToString("admin:admin".getBytes(StandardCharsets.ISO_8859_1)));
+    }
+    var response = new MockHttpServletResponse();
+
+    this.securityFilterChain.doFilter(request, response, NO_OP);
+
+    if (request.getSession(false) != null) {
+      sessions.sessions++;
+    }
+    return response.getStatus();
+  }
+}
@@ -0,0 +1,89 @@
+package com.assessment.postcode.benchmark;
+
+import com.assessment.postcode.index.PostcodeKeys;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic postcode dataset for benchmarks. Row {@code i} always has the same unique
+ * postcode and coordinates inside the UK bounds the service accepts, so runs of different sizes
+ * are comparable.
+ */
+final class SyntheticPostcodes {
+
+  static final int MAX_ROWS = 2_000_000;
+
+  private static final int INWARD_CODES = 10 * 26 * 26;
+  private static final int DISTRICTS = 100;
+  private static final long SEED = 42;
+
+  private SyntheticPostcodes() {
+  }
+
+  static String postcode(int row) {
+    int inward = row % INWARD_CODES;
+    int rest = row / INWARD_CODES;
+    int district = rest % DISTRICTS;
+    int area = rest / DISTRICTS;
+    return new String(new char[] {letter(area / 26), letter(area % 26)}) + district + ' '
+      + inward / 676 + letter(inward / 26 % 26) + letter(inward % 26);
+  }
+
+  static double[] coordinates(int row) {
+    var random = new SplittableRandom(SEED + row);
+    return new double[] {50.0 + random.nextDouble() * 8.5, -5.5 + random.nextDouble() * 7.0};
+  }
+
+  /**
+   * Writes {@code rows} rows in the import CSV format, header included.
+   */
+  static void writeCsv(Path path, int rows) throws IOException {
+    checkRows(rows);
+    try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+      writer.write("id,postcode,latitude,longitude\n");
+      for (int row = 0; row < rows; row++) {
+        var point = coordinates(row);
+        writer.write(String.format(Locale.ROOT, "%d,%s,%.6f,%.6f%n", row + 1, postcode(row),
+          point[0], point[1]));
+      }
+    }
+  }
+
+  /**
+   * Inserts {@code rows} rows into {@code UK_POSTCODE} in JDBC batches.
+   */
+  static void insert(JdbcTemplate jdbcTemplate, int rows) {
+    checkRows(rows);
+    List<Object[]> batch = new ArrayList<>(10_000);
+    for (int row = 0; row < rows; row++) {
+      var point = coordinates(row);
+      var postcode = postcode(row);
+      batch.add(new Object[] {row + 1, postcode, PostcodeKeys.key(postcode), point[0], point[1]});
+      if (batch.size() == 10_000 || row == rows - 1) {
+        jdbcTemplate.batchUpdate(
+          "INSERT INTO UK_POSTCODE (ID, POSTCODE, POSTCODE_KEY, LATITUDE, LONGITUDE) "
+            + "VALUES (?, ?, ?, ?, ?)", batch);
+        batch.clear();
+      }
+    }
+  }
+
+  private static void checkRows(int rows) {
+    if (rows < 1 || rows > MAX_ROWS) {
+      throw new IllegalArgumentException("rows must be between 1 and " + MAX_ROWS);
+    }
+  }
+
+  private static char letter(int index) {
+    return (char) ('A' + index);
+  }
+}
@@ -0,0 +1,86 @@
+package com.assessment.postcode.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+
+@Slf4j
+public final class CsvFiles {
+
+  // classpath resources packaged inside the jar, copied once for the life of the JVM
+  private static final Map<String, Path> CLASSPATH_COPIES = new ConcurrentHashMap<>();
+
+  private CsvFiles() {
+  }
+
+  /**
+   * Resolves {@code csvPath} against the filesystem first and the classpath second. A classpath
+   * resource packaged inside the jar is copied to a temporary file so that it can be mapped; the
+   * copy is shared by every later call, such as the checksum, the partitioner and each partition's
+   * reader, and deleted when the JVM exits.
+   */
+  public static Path resolve(String csvPath) {
+    var path = Path.of(csvPath);
+    if (Files.isRegularFile(path)) {
+      return path;
+    }
+
+    var resource = new ClassPathResource(csvPath);
+    if (!resource.exists()) {
+      throw new UncheckedIOException(new IOException("CSV file not found: " + csvPath));
+    }
+    try {
+      if (resource.isFile()) {
+        return resource.getFile().toPath();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to read CSV file " + csvPath, e);
+    }
+    // copied again if something such as a temp directory cleaner removed the copy
+    return CLASSPATH_COPIES.compute(csvPath,
+      (key, copy) -> copy != null && Files.isRegularFile(copy) ? copy : copy(resource));
+  }
+
+  private static Path copy(ClassPathResource resource) {
+    try {
+      var copy = Files.createTempFile("postcodes-", ".csv");
+      copy.toFile().deleteOnExit();
+      try (var in = resource.getInputStream()) {
+        Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+      }
+      log.info("Copied classpath resource {} to {}", resource.getPath(), copy);
+      return copy;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to read CSV file " + resource.getPath(), e);
+    }
+  }
+
+  /**
+   * @return the CRC32C of the resolved file, which identifies the data an index snapshot file was
+   *   built from
+   */
+  public static long checksum(String csvPath) {
+    var path = resolve(csvPath);
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      var crc = new CRC32C();
+      long size = channel.size();
+      for (long position = 0; position < size; position += Integer.MAX_VALUE) {
+        crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position,
+          Math.min(Integer.MAX_VALUE, size - position)));
+      }
+      return crc.getValue();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to read CSV file " + csvPath, e);
+    }
+  }
+}
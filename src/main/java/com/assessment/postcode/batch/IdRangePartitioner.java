@@ -0,0 +1,54 @@
+package com.assessment.postcode.batch;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Splits {@code UK_POSTCODE} into contiguous, equally wide {@code ID} ranges, one per partition,
+ * so each partition reads its rows with {@code WHERE ID BETWEEN :minId AND :maxId}.
+ */
+public class IdRangePartitioner implements Partitioner {
+
+  public static final String MIN_ID = "minId";
+  public static final String MAX_ID = "maxId";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public IdRangePartitioner(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public Map<String, ExecutionContext> partition(int gridSize) {
+    Map<String, ExecutionContext> contexts = new LinkedHashMap<>();
+    var bounds = this.jdbcTemplate.queryForMap("SELECT MIN(ID) AS MIN_ID, MAX(ID) AS MAX_ID "
+      + "FROM UK_POSTCODE");
+    if (bounds.get("MIN_ID") == null) {
+      contexts.put("partition0", context(0, -1));
+      return contexts;
+    }
+
+    long min = ((Number) bounds.get("MIN_ID")).longValue();
+    long max = ((Number) bounds.get("MAX_ID")).longValue();
+    long span = max - min + 1;
+    int partitions = (int) Math.max(1, Math.min(gridSize, span));
+    long start = min;
+    for (int i = 0; i < partitions; i++) {
+      long end = i == partitions - 1 ? max : min + span * (i + 1) / partitions - 1;
+      contexts.put("partition" + i, context(start, end));
+      start = end + 1;
+    }
+    return contexts;
+  }
+
+  private static ExecutionContext context(long minId, long maxId) {
+    var context = new ExecutionContext();
+    context.putLong(MIN_ID, minId);
+    context.putLong(MAX_ID, maxId);
+    return context;
+  }
+}
@@ -0,0 +1,63 @@
+package com.assessment.postcode.batch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records rows written and rows per second for every committed import chunk, tagged with the
+ * step name. Partition workers each have their own chunk context, so the listener can be shared
+ * between concurrently running steps.
+ */
+public class ImportThroughputListener implements ChunkListener {
+
+  private static final String START_NANOS = "importThroughput.startNanos";
+  private static final String START_WRITE_COUNT = "importThroughput.startWriteCount";
+
+  private final MeterRegistry meterRegistry;
+
+  public ImportThroughputListener(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public void beforeChunk(ChunkContext context) {
+    context.setAttribute(START_NANOS, System.nanoTime());
+    context.setAttribute(START_WRITE_COUNT,
+      context.getStepContext().getStepExecution().getWriteCount());
+  }
+
+  @Override
+  public void afterChunk(ChunkContext context) {
+    if (!context.hasAttribute(START_NANOS)) {
+      return;
+    }
+    long nanos = System.nanoTime() - (long) context.removeAttribute(START_NANOS);
+    var stepExecution = context.getStepContext().getStepExecution();
+    long rows = stepExecution.getWriteCount() - (long) context.removeAttribute(START_WRITE_COUNT);
+    String step = stepExecution.getStepName();
+
+    Timer.builder("postcode.import.chunk")
+      .description("Time to read, process and write one import chunk")
+      .tag("step", step)
+      .register(this.meterRegistry)
+      .record(nanos, TimeUnit.NANOSECONDS);
+    Counter.builder("postcode.import.rows")
+      .description("Rows written by the import")
+      .tag("step", step)
+      .register(this.meterRegistry)
+      .increment(rows);
+    if (nanos > 0) {
+      DistributionSummary.builder("postcode.import.chunk.throughput")
+        .description("Rows per second of each import chunk")
+        .tag("step", step)
+        .register(this.meterRegistry)
+        .record(rows * 1e9 / nanos);
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.assessment.postcode.batch;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Splits a CSV file into contiguous byte ranges, one per partition. Every range starts at the
+ * beginning of a line and the header line is excluded, so each partition can be read on its own
+ * with a {@link MappedCsvItemReader}.
+ */
+public class LineAlignedPartitioner implements Partitioner {
+
+  public static final String START_OFFSET = "startOffset";
+  public static final String END_OFFSET = "endOffset";
+
+  private final Path file;
+
+  public LineAlignedPartitioner(Path file) {
+    this.file = file;
+  }
+
+  @Override
+  public Map<String, ExecutionContext> partition(int gridSize) {
+    try (var channel = FileChannel.open(this.file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      long dataStart = nextLineStart(channel, 0, size);
+      long span = size - dataStart;
+      int partitions = (int) Math.max(1, Math.min(gridSize, span));
+
+      Map<String, ExecutionContext> contexts = new LinkedHashMap<>();
+      long start = dataStart;
+      for (int i = 0; i < partitions; i++) {
+        long end = i == partitions - 1
+          ? size
+          : nextLineStart(channel, dataStart + span * (i + 1) / partitions, size);
+        end = Math.max(end, start);
+
+        var context = new ExecutionContext();
+        context.putLong(START_OFFSET, start);
+        context.putLong(END_OFFSET, end);
+        contexts.put("partition" + i, context);
+        start = end;
+      }
+      return contexts;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to partition " + this.file, e);
+    }
+  }
+
+  /**
+   * @return the offset of the first line starting at or after {@code position}
+   */
+  static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+    if (position == 0) {
+      // the first line is the header, so data starts after its line break
+      return skipPastNewline(channel, 0, size);
+    }
+    return skipPastNewline(channel, position - 1, size);
+  }
+
+  private static long skipPastNewline(FileChannel channel, long position, long size)
+    throws IOException {
+    var buffer = ByteBuffer.allocate(8192);
+    long offset = position;
+    while (offset < size) {
+      buffer.clear();
+      int read = channel.read(buffer, offset);
+      if (read <= 0) {
+        break;
+      }
+      for (int i = 0; i < read; i++) {
+        if (buffer.get(i) == '\n') {
+          return offset + i + 1;
+        }
+      }
+      offset += read;
+    }
+    return size;
+  }
+}
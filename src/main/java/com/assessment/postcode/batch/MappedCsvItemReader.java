@@ -0,0 +1,291 @@
+package com.assessment.postcode.batch;
+
+import com.assessment.postcode.model.PostcodeRecord;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.batch.item.file.FlatFileParseException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads {@code id,postcode,latitude,longitude} records from a memory-mapped CSV file. Fields are
+ * parsed straight from the mapped bytes: ids and coordinates never pass through a {@code String},
+ * and the only per-row allocations are the postcode and the record handed to the writer.
+ *
+ * <p>The reader covers either the whole file after its header line, or the byte range
+ * {@code [start, end)} of one partition. The offset of the next unread line is saved to the step
+ * execution context, so a restarted step resumes where its last committed chunk ended.
+ */
+public class MappedCsvItemReader extends ItemStreamSupport implements ItemStreamReader<PostcodeRecord> {
+
+  private static final String POSITION = "position";
+  private static final long MAX_WINDOW = 1L << 30;
+  private static final int MAX_FIELD_LENGTH = 64;
+  // every integer with up to 15 digits, and 10^0..10^15, are exact doubles
+  private static final int MAX_EXACT_DIGITS = 15;
+  private static final double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+
+  private final Path file;
+  private final long start;
+  private final boolean skipHeader;
+  private final byte[] scratch = new byte[MAX_FIELD_LENGTH];
+
+  private FileChannel channel;
+  private MappedByteBuffer window;
+  private long windowOffset;
+  private long end;
+  private long position;
+
+  /**
+   * Reads every record of {@code file}, skipping the header line.
+   */
+  public MappedCsvItemReader(Path file) {
+    this(file, 0, -1, true);
+  }
+
+  /**
+   * Reads the records in {@code [start, end)}; {@code start} must be the first byte of a line.
+   */
+  public MappedCsvItemReader(Path file, long start, long end) {
+    this(file, start, end, false);
+  }
+
+  private MappedCsvItemReader(Path file, long start, long end, boolean skipHeader) {
+    this.file = file;
+    this.start = start;
+    this.end = end;
+    this.skipHeader = skipHeader;
+    this.setName("mappedCsvItemReader");
+  }
+
+  @Override
+  public void open(ExecutionContext executionContext) throws ItemStreamException {
+    try {
+      this.channel = FileChannel.open(this.file, StandardOpenOption.READ);
+      if (this.end < 0 || this.end > this.channel.size()) {
+        this.end = this.channel.size();
+      }
+
+      String key = this.getExecutionContextKey(POSITION);
+      if (executionContext.containsKey(key)) {
+        this.position = executionContext.getLong(key);
+        this.map(this.position);
+      } else {
+        this.position = this.start;
+        this.map(this.position);
+        if (this.skipHeader) {
+          this.nextLineEnd();
+        }
+      }
+    } catch (IOException e) {
+      throw new ItemStreamException("Unable to open " + this.file, e);
+    }
+  }
+
+  @Override
+  public void update(ExecutionContext executionContext) throws ItemStreamException {
+    executionContext.putLong(this.getExecutionContextKey(POSITION), this.position);
+  }
+
+  @Override
+  public void close() throws ItemStreamException {
+    this.window = null;
+    try {
+      if (this.channel != null) {
+        this.channel.close();
+      }
+    } catch (IOException e) {
+      throw new ItemStreamException("Unable to close " + this.file, e);
+    } finally {
+      this.channel = null;
+    }
+  }
+
+  @Override
+  public PostcodeRecord read() throws Exception {
+    while (this.position < this.end) {
+      long lineStart = this.position;
+      int to = this.nextLineEnd();
+      int from = (int) (lineStart - this.windowOffset);
+      int lineEnd = trimEnd(this.window, from, to);
+      from = trimStart(this.window, from, lineEnd);
+      if (from < lineEnd) {
+        return this.parse(from, lineEnd);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Advances {@link #position} past the current line.
+   *
+   * @return the window index at which the current line ends, excluding its line break
+   */
+  private int nextLineEnd() throws IOException {
+    int from = (int) (this.position - this.windowOffset);
+    int limit = this.window.limit();
+    for (int i = from; i < limit; i++) {
+      if (this.window.get(i) == '\n') {
+        this.position = this.windowOffset + i + 1;
+        return i;
+      }
+    }
+
+    if (this.windowOffset + limit < this.end) {
+      // the line runs past the mapped window, so map again starting at the line
+      this.map(this.position);
+      return this.nextLineEnd();
+    }
+    this.position = this.end;
+    return limit;
+  }
+
+  private void map(long offset) throws IOException {
+    long length = Math.min(this.end - offset, MAX_WINDOW);
+    this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.max(length, 0));
+    this.windowOffset = offset;
+  }
+
+  private PostcodeRecord parse(int from, int to) {
+    int comma1 = indexOf(this.window, ',', from, to);
+    int comma2 = indexOf(this.window, ',', comma1 + 1, to);
+    int comma3 = indexOf(this.window, ',', comma2 + 1, to);
+    if (comma1 < 0 || comma2 < 0 || comma3 < 0 || indexOf(this.window, ',', comma3 + 1, to) >= 0) {
+      throw new FlatFileParseException("Expected 4 fields", this.line(from, to));
+    }
+
+    try {
+      return PostcodeRecord.builder()
+        .id(parseLong(this.window, from, comma1))
+        .postcode(this.string(comma1 + 1, comma2))
+        .latitude(parseCoordinate(this.window, comma2 + 1, comma3))
+        .longitude(parseCoordinate(this.window, comma3 + 1, to))
+        .build();
+    } catch (NumberFormatException e) {
+      throw new FlatFileParseException(e.getMessage(), e, this.line(from, to), 0);
+    }
+  }
+
+  private String string(int from, int to) {
+    from = trimStart(this.window, from, to);
+    to = trimEnd(this.window, from, to);
+    if (to - from >= 2 && this.window.get(from) == '"' && this.window.get(to - 1) == '"') {
+      from++;
+      to--;
+    }
+    if (to - from > MAX_FIELD_LENGTH) {
+      throw new NumberFormatException("Field exceeds " + MAX_FIELD_LENGTH + " bytes");
+    }
+    this.window.get(from, this.scratch, 0, to - from);
+    return new String(this.scratch, 0, to - from, StandardCharsets.ISO_8859_1);
+  }
+
+  private String line(int from, int to) {
+    var bytes = new byte[to - from];
+    this.window.get(from, bytes);
+    return new String(bytes, StandardCharsets.ISO_8859_1);
+  }
+
+  private static long parseLong(ByteBuffer bytes, int from, int to) {
+    from = trimStart(bytes, from, to);
+    to = trimEnd(bytes, from, to);
+    if (from == to) {
+      throw new NumberFormatException("Empty number");
+    }
+
+    long value = 0;
+    for (int i = from; i < to; i++) {
+      int digit = bytes.get(i) - '0';
+      if (digit < 0 || digit > 9) {
+        throw new NumberFormatException("Invalid digit at column " + i);
+      }
+      value = Math.addExact(Math.multiplyExact(value, 10), digit);
+    }
+    return value;
+  }
+
+  private static double parseCoordinate(ByteBuffer bytes, int from, int to) {
+    from = trimStart(bytes, from, to);
+    to = trimEnd(bytes, from, to);
+    if (from == to) {
+      return Double.NaN;
+    }
+
+    int start = from;
+    boolean negative = bytes.get(from) == '-';
+    if (negative || bytes.get(from) == '+') {
+      from++;
+    }
+
+    long unscaled = 0;
+    int scale = -1;
+    int digits = 0;
+    for (int i = from; i < to; i++) {
+      byte b = bytes.get(i);
+      if (b == '.' && scale < 0) {
+        scale = 0;
+        continue;
+      }
+      int digit = b - '0';
+      if (digit < 0 || digit > 9) {
+        throw new NumberFormatException("Invalid digit at column " + i);
+      }
+      if (digits == MAX_EXACT_DIGITS) {
+        // too many digits to convert exactly below, so fall back to the JDK parser
+        return Double.parseDouble(ascii(bytes, start, to));
+      }
+      unscaled = unscaled * 10 + digit;
+      digits++;
+      if (scale >= 0) {
+        scale++;
+      }
+    }
+    if (digits == 0) {
+      throw new NumberFormatException("Empty number");
+    }
+
+    // both operands are exact doubles, so the quotient is correctly rounded like parseDouble
+    double value = scale > 0 ? unscaled / POWERS_OF_TEN[scale] : unscaled;
+    return negative ? -value : value;
+  }
+
+  private static String ascii(ByteBuffer bytes, int from, int to) {
+    var chars = new byte[to - from];
+    for (int i = from; i < to; i++) {
+      chars[i - from] = bytes.get(i);
+    }
+    return new String(chars, StandardCharsets.US_ASCII);
+  }
+
+  private static int indexOf(ByteBuffer bytes, char c, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (bytes.get(i) == c) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int trimStart(ByteBuffer bytes, int from, int to) {
+    while (from < to && bytes.get(from) <= ' ') {
+      from++;
+    }
+    return from;
+  }
+
+  private static int trimEnd(ByteBuffer bytes, int from, int to) {
+    while (to > from && bytes.get(to - 1) <= ' ') {
+      to--;
+    }
+    return to;
+  }
+}
@@ -0,0 +1,67 @@
+package com.assessment.postcode.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static com.assessment.postcode.batch.StagingTableTasklet.STAGING_TABLE;
+
+/**
+ * Brings {@code UK_POSTCODE} in line with {@value StagingTableTasklet#STAGING_TABLE} using three
+ * set-based statements, so only rows that differ are touched:
+ * <ol>
+ *   <li>rows whose id is gone from the new file, or now belongs to another postcode, are
+ *   deleted;</li>
+ *   <li>rows whose coordinates changed are updated;</li>
+ *   <li>ids that are new are inserted.</li>
+ * </ol>
+ * The tasklet runs in the step's transaction, so readers see either the old or the new table and
+ * never a partly applied delta. The counts are stored in the step execution context.
+ */
+@Slf4j
+public class PostcodeDeltaTasklet implements Tasklet {
+
+  public static final String DELETED = "postcodes.deleted";
+  public static final String UPDATED = "postcodes.updated";
+  public static final String INSERTED = "postcodes.inserted";
+
+  private static final String DELETE_SQL = "DELETE FROM UK_POSTCODE t WHERE NOT EXISTS ("
+    + "SELECT 1 FROM " + STAGING_TABLE + " s WHERE s.ID = t.ID AND s.POSTCODE_KEY = t.POSTCODE_KEY)";
+
+  private static final String UPDATE_SQL = "MERGE INTO UK_POSTCODE t USING " + STAGING_TABLE
+    + " s ON t.ID = s.ID WHEN MATCHED AND (t.LATITUDE IS DISTINCT FROM s.LATITUDE"
+    + " OR t.LONGITUDE IS DISTINCT FROM s.LONGITUDE)"
+    + " THEN UPDATE SET LATITUDE = s.LATITUDE, LONGITUDE = s.LONGITUDE";
+
+  private static final String INSERT_SQL =
+    "INSERT INTO UK_POSTCODE (ID, POSTCODE, POSTCODE_KEY, LATITUDE, LONGITUDE) "
+      + "SELECT s.ID, s.POSTCODE, s.POSTCODE_KEY, s.LATITUDE, s.LONGITUDE FROM " + STAGING_TABLE
+      + " s WHERE NOT EXISTS (SELECT 1 FROM UK_POSTCODE t WHERE t.ID = s.ID)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public PostcodeDeltaTasklet(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+    // deleting first frees the postcodes of reassigned ids before they are inserted again
+    int deleted = this.jdbcTemplate.update(DELETE_SQL);
+    int updated = this.jdbcTemplate.update(UPDATE_SQL);
+    int inserted = this.jdbcTemplate.update(INSERT_SQL);
+
+    var context = chunkContext.getStepContext().getStepExecution().getExecutionContext();
+    context.putInt(DELETED, deleted);
+    context.putInt(UPDATED, updated);
+    context.putInt(INSERTED, inserted);
+    contribution.incrementWriteCount(deleted + updated + inserted);
+
+    log.info("Applied postcode delta: {} deleted, {} updated, {} inserted", deleted, updated,
+      inserted);
+    return RepeatStatus.FINISHED;
+  }
+}
@@ -0,0 +1,41 @@
+package com.assessment.postcode.batch;
+
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Recreates {@value #STAGING_TABLE} empty on every run, so an incremental import can load the new
+ * CSV beside the live table. The columns are copied from {@code UK_POSTCODE} rather than declared
+ * here, so the staging table follows whatever schema the entity mapping gives the live table; only
+ * the NOT NULL constraints, the primary key and the postcode key index the delta joins on are
+ * added.
+ */
+public class StagingTableTasklet implements Tasklet {
+
+  public static final String STAGING_TABLE = "UK_POSTCODE_STAGING";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public StagingTableTasklet(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+    this.jdbcTemplate.execute("DROP TABLE IF EXISTS " + STAGING_TABLE);
+    this.jdbcTemplate.execute("CREATE TABLE " + STAGING_TABLE
+      + " AS SELECT ID, POSTCODE, POSTCODE_KEY, LATITUDE, LONGITUDE FROM UK_POSTCODE WHERE 1 = 0");
+    // CREATE TABLE AS copies column types but not constraints
+    for (String column : new String[] {"ID", "POSTCODE", "POSTCODE_KEY"}) {
+      this.jdbcTemplate.execute("ALTER TABLE " + STAGING_TABLE + " ALTER COLUMN " + column
+        + " SET NOT NULL");
+    }
+    this.jdbcTemplate.execute("ALTER TABLE " + STAGING_TABLE + " ADD PRIMARY KEY (ID)");
+    this.jdbcTemplate.execute("CREATE UNIQUE INDEX " + STAGING_TABLE + "_POSTCODE_KEY ON "
+      + STAGING_TABLE + " (POSTCODE_KEY)");
+    return RepeatStatus.FINISHED;
+  }
+}
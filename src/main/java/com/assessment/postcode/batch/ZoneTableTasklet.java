@@ -0,0 +1,31 @@
+package com.assessment.postcode.batch;
+
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Creates {@value #ZONE_TABLE}, which maps a postcode key to the id of the zone the postcode
+ * falls in, if it does not exist yet, and empties it before the assignments are recomputed.
+ */
+public class ZoneTableTasklet implements Tasklet {
+
+  public static final String ZONE_TABLE = "UK_POSTCODE_ZONE";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public ZoneTableTasklet(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+    this.jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + ZONE_TABLE + " ("
+      + "POSTCODE_KEY BIGINT NOT NULL PRIMARY KEY, "
+      + "ZONE_ID VARCHAR(255) NOT NULL)");
+    this.jdbcTemplate.execute("TRUNCATE TABLE " + ZONE_TABLE);
+    return RepeatStatus.FINISHED;
+  }
+}
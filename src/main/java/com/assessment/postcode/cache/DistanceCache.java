@@ -0,0 +1,134 @@
+package com.assessment.postcode.cache;
+
+import com.assessment.postcode.dto.UkPostcodeDto;
+import com.assessment.postcode.model.DistanceMode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of computed distances keyed on the unordered postcode pair and the
+ * {@link DistanceMode}, so {@code (a, b)} and {@code (b, a)} share one entry. Both postcodes are
+ * cached with the distance, which lets a hit skip the lookups as well as the haversine.
+ *
+ * <p>{@link #invalidate(String)} drops every pair that contains the postcode. It scans the cache,
+ * which is cheap at the configured size and only runs on coordinate updates.
+ */
+@Component
+public class DistanceCache implements MeterBinder {
+
+  private final Cache<PairKey, Entry> cache;
+
+  // bumped by every invalidation, so a load that overlaps one does not keep its result
+  private final AtomicLong invalidations = new AtomicLong();
+
+  public record Entry(UkPostcodeDto postcode1, UkPostcodeDto postcode2, double distanceKm) {
+
+    private Entry swapped() {
+      return new Entry(this.postcode2, this.postcode1, this.distanceKm);
+    }
+
+    private Entry copy() {
+      return new Entry(copyOf(this.postcode1), copyOf(this.postcode2), this.distanceKm);
+    }
+  }
+
+  private record PairKey(String first, String second, DistanceMode mode) {
+
+    static PairKey of(String postcode1, String postcode2, DistanceMode mode) {
+      return postcode1.compareTo(postcode2) <= 0
+        ? new PairKey(postcode1, postcode2, mode)
+        : new PairKey(postcode2, postcode1, mode);
+    }
+
+    boolean contains(String postcode) {
+      return this.first.equals(postcode) || this.second.equals(postcode);
+    }
+
+    boolean containsAny(Set<String> postcodes) {
+      return postcodes.contains(this.first) || postcodes.contains(this.second);
+    }
+  }
+
+  public DistanceCache(@Value("${postcode.distance-cache.maximum-size:10000}") long maximumSize) {
+    this.cache = Caffeine.newBuilder()
+      .maximumSize(maximumSize)
+      .recordStats()
+      .build();
+  }
+
+  /**
+   * Returns the distance between the postcodes in the order they were requested, calling
+   * {@code loader} on a miss. Exceptions thrown by the loader are not cached.
+   */
+  public Entry get(String postcode1, String postcode2, DistanceMode mode,
+    Supplier<Entry> loader) {
+    var key = PairKey.of(postcode1, postcode2, mode);
+    boolean swapped = !key.first().equals(postcode1);
+
+    var cached = this.cache.getIfPresent(key);
+    if (cached != null) {
+      return (swapped ? cached.swapped() : cached).copy();
+    }
+
+    long invalidationsBefore = this.invalidations.get();
+    var loaded = loader.get();
+    this.cache.put(key, (swapped ? loaded.swapped() : loaded).copy());
+    if (this.invalidations.get() != invalidationsBefore) {
+      // the coordinates may have been read before an update that the scan could not see yet
+      this.cache.invalidate(key);
+    }
+    return loaded;
+  }
+
+  /**
+   * Drops every cached pair that contains {@code postcode}. Call after its coordinates change.
+   */
+  public void invalidate(String postcode) {
+    this.invalidations.incrementAndGet();
+    this.cache.asMap().keySet().removeIf(key -> key.contains(postcode));
+  }
+
+  /**
+   * Drops every cached pair that contains any of {@code postcodes}, in a single scan.
+   */
+  public void invalidate(Collection<String> postcodes) {
+    var changed = new HashSet<>(postcodes);
+    this.invalidations.incrementAndGet();
+    this.cache.asMap().keySet().removeIf(key -> key.containsAny(changed));
+  }
+
+  public void invalidateAll() {
+    this.invalidations.incrementAndGet();
+    this.cache.invalidateAll();
+  }
+
+  public long size() {
+    return this.cache.estimatedSize();
+  }
+
+  public CacheStats stats() {
+    return this.cache.stats();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, this.cache, "postcodeDistances");
+  }
+
+  private static UkPostcodeDto copyOf(UkPostcodeDto dto) {
+    return new UkPostcodeDto(dto.getId(), dto.getPostcode(), dto.getLatitude(),
+      dto.getLongitude());
+  }
+}
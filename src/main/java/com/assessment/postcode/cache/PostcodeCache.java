@@ -0,0 +1,113 @@
+package com.assessment.postcode.cache;
+
+import com.assessment.postcode.dto.UkPostcodeDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of postcode lookups. Unknown postcodes are cached as empty results, so repeated
+ * misses do not reach the database either. Entries are copied on the way in and out because
+ * {@link UkPostcodeDto} is mutable. A maximum size of {@code 0} turns caching off.
+ *
+ * <p>Loads run outside the cache's per-key computation, so a slow or batched load never blocks
+ * lookups of other postcodes; the loader is expected to coalesce concurrent loads of the same
+ * postcode itself.
+ */
+@Component
+public class PostcodeCache implements MeterBinder {
+
+  private final Cache<String, Optional<UkPostcodeDto>> cache;
+  private final boolean enabled;
+
+  // bumped by every write, so a load that overlaps one does not keep its result
+  private final AtomicLong writes = new AtomicLong();
+
+  public PostcodeCache(@Value("${postcode.cache.maximum-size:100000}") long maximumSize,
+    @Value("${postcode.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+    this.cache = Caffeine.newBuilder()
+      .maximumSize(maximumSize)
+      .expireAfterWrite(expireAfterWrite)
+      .recordStats()
+      .build();
+    this.enabled = maximumSize > 0;
+  }
+
+  /**
+   * Returns the cached lookup for {@code postcode}, calling {@code loader} on a miss.
+   */
+  public Optional<UkPostcodeDto> get(String postcode,
+    Function<String, Optional<UkPostcodeDto>> loader) {
+    if (!this.enabled) {
+      return loader.apply(postcode);
+    }
+
+    var cached = this.cache.getIfPresent(postcode);
+    if (cached != null) {
+      return cached.map(PostcodeCache::copy);
+    }
+
+    long writesBefore = this.writes.get();
+    var loaded = loader.apply(postcode);
+    this.cache.asMap().putIfAbsent(postcode, loaded.map(PostcodeCache::copy));
+    if (this.writes.get() != writesBefore) {
+      // the row may have been read before a write that replaced or dropped the entry
+      this.cache.invalidate(postcode);
+    }
+    return loaded;
+  }
+
+  /**
+   * Replaces the entry after a write. A load of the same key that is in flight does not
+   * overwrite this value with the row it read before the write.
+   */
+  public void put(String postcode, UkPostcodeDto dto) {
+    if (!this.enabled) {
+      return;
+    }
+    this.writes.incrementAndGet();
+    this.cache.put(postcode, Optional.of(copy(dto)));
+  }
+
+  /**
+   * Drops the entries after a write that did not produce full lookups to put.
+   */
+  public void invalidate(Collection<String> postcodes) {
+    this.writes.incrementAndGet();
+    this.cache.invalidateAll(postcodes);
+  }
+
+  public void invalidateAll() {
+    this.writes.incrementAndGet();
+    this.cache.invalidateAll();
+  }
+
+  public long size() {
+    return this.cache.estimatedSize();
+  }
+
+  public CacheStats stats() {
+    return this.cache.stats();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, this.cache, "postcodes");
+  }
+
+  private static UkPostcodeDto copy(UkPostcodeDto dto) {
+    return new UkPostcodeDto(dto.getId(), dto.getPostcode(), dto.getLatitude(),
+      dto.getLongitude());
+  }
+}
@@ -1,12 +1,33 @@
 package com.assessment.postcode.config;
 
+import com.assessment.postcode.batch.CsvFiles;
+import com.assessment.postcode.batch.IdRangePartitioner;
+import com.assessment.postcode.batch.ImportThroughputListener;
+import com.assessment.postcode.batch.LineAlignedPartitioner;
+import com.assessment.postcode.batch.MappedCsvItemReader;
+import com.assessment.postcode.batch.PostcodeDeltaTasklet;
+import com.assessment.postcode.batch.StagingTableTasklet;
+import com.assessment.postcode.batch.ZoneTableTasklet;
+import com.assessment.postcode.cache.DistanceCache;
+import com.assessment.postcode.cache.PostcodeCache;
 import com.assessment.postcode.entity.UkPostcode;
+import com.assessment.postcode.index.PostcodeIndex;
+import com.assessment.postcode.index.PostcodeKeys;
 import com.assessment.postcode.model.PostcodeRecord;
+import com.assessment.postcode.model.ZoneAssignment;
+import com.assessment.postcode.model.ZonePoint;
+import com.assessment.postcode.zone.ZoneIndex;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
 import org.springframework.batch.core.JobParametersBuilder;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.explore.JobExplorer;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.repository.JobRepository;
@@ -15,24 +36,27 @@ import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.database.BeanPropertyItemSqlParameterSourceProvider;
 import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
 import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
-import org.springframework.batch.item.file.FlatFileItemReader;
-import org.springframework.batch.item.file.LineMapper;
-import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
-import org.springframework.batch.item.file.mapping.FieldSetMapper;
-import org.springframework.batch.item.file.separator.DefaultRecordSeparatorPolicy;
-import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
-import org.springframework.batch.item.file.transform.FieldSet;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.batch.BatchTaskExecutor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.stereotype.Component;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.PlatformTransactionManager;
-import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
+import java.util.stream.Stream;
 
 @Configuration
 @Slf4j
@@ -40,113 +64,422 @@ public class BatchConfiguration {
 
   @Bean
   @StepScope
-  public FlatFileItemReader<PostcodeRecord> reader(
+  public MappedCsvItemReader reader(
     @Value("#{jobParameters['csvPath']}") String csvPath) {
+    return new MappedCsvItemReader(CsvFiles.resolve(csvPath));
+  }
 
-    var tokenizer = new DelimitedLineTokenizer(",");
-    tokenizer.setNames("id", "postcode", "latitude", "longitude");
-
-    FieldSetMapper<PostcodeRecord> fieldSetMapper = fieldSet -> PostcodeRecord.builder()
-      .id(fieldSet.readLong("id"))
-      .postcode(fieldSet.readString("postcode"))
-      .latitude(fieldSet.readBigDecimal("latitude"))
-      .longitude(fieldSet.readBigDecimal("longitude"))
-      .build();
-
-    LineMapper<PostcodeRecord> nonEmptyLineMapper = (line, lineNumber) -> {
-      if (!StringUtils.hasText(line)) {
+  @Bean
+  public ItemProcessor<PostcodeRecord, UkPostcode> processor() {
+    return r -> {
+      long key = PostcodeKeys.key(r.postcode());
+      if (key == PostcodeKeys.INVALID) {
+        // not a postcode, so it could never be looked up; counted as filtered by the step
         return null;
       }
-      FieldSet fieldSet = tokenizer.tokenize(line);
-      return fieldSetMapper.mapFieldSet(fieldSet);
+      return UkPostcode.builder()
+        .id(r.id())
+        .postcode(PostcodeKeys.unpack(key))
+        .postcodeKey(key)
+        .latitude(Double.isNaN(r.latitude()) ? null : r.latitude())
+        .longitude(Double.isNaN(r.longitude()) ? null : r.longitude())
+        .build();
     };
-
-    DefaultRecordSeparatorPolicy separatorPolicy = new DefaultRecordSeparatorPolicy() {
-      @Override
-      public boolean isEndOfRecord(String line) {
-        return StringUtils.hasText(line);
-      }
-
-      @Override
-      public String postProcess(String record) {
-        return record.trim();
-      }
-    };
-
-    return new FlatFileItemReaderBuilder<PostcodeRecord>()
-      .name("itemReader")
-      .resource(new ClassPathResource(csvPath))
-      .linesToSkip(1)
-      .recordSeparatorPolicy(separatorPolicy)
-      .lineTokenizer(tokenizer)
-      .lineMapper(nonEmptyLineMapper)
-      .build();
   }
 
   @Bean
-  public ItemProcessor<PostcodeRecord, UkPostcode> processor() {
-    return r -> UkPostcode.builder()
-      .id(r.id())
-      .postcode(r.postcode())
-      .latitude(r.latitude())
-      .longitude(r.longitude())
+  public JdbcBatchItemWriter<UkPostcode> postcodeWriter(DataSource dataSource) {
+    return new JdbcBatchItemWriterBuilder<UkPostcode>()
+      .itemSqlParameterSourceProvider(new BeanPropertyItemSqlParameterSourceProvider<>())
+      .sql(
+        "INSERT INTO UK_POSTCODE (id, postcode, postcode_key, latitude, longitude) VALUES (:id, :postcode, :postcodeKey, :latitude, :longitude)")
+      .dataSource(dataSource)
       .build();
   }
 
   @Bean
-  public JdbcBatchItemWriter<UkPostcode> postcodeWriter(DataSource dataSource) {
+  public JdbcBatchItemWriter<UkPostcode> stagingWriter(DataSource dataSource) {
     return new JdbcBatchItemWriterBuilder<UkPostcode>()
       .itemSqlParameterSourceProvider(new BeanPropertyItemSqlParameterSourceProvider<>())
-      .sql(
-        "INSERT INTO UK_POSTCODE (id, postcode, latitude, longitude) VALUES (:id, :postcode, :latitude, :longitude)")
+      .sql("INSERT INTO " + StagingTableTasklet.STAGING_TABLE
+        + " (id, postcode, postcode_key, latitude, longitude) VALUES (:id, :postcode, :postcodeKey, :latitude, :longitude)")
       .dataSource(dataSource)
       .build();
   }
 
+  @Bean
+  @StepScope
+  public MappedCsvItemReader partitionReader(
+    @Value("#{jobParameters['csvPath']}") String csvPath,
+    @Value("#{stepExecutionContext['" + LineAlignedPartitioner.START_OFFSET + "']}") long start,
+    @Value("#{stepExecutionContext['" + LineAlignedPartitioner.END_OFFSET + "']}") long end) {
+    return new MappedCsvItemReader(CsvFiles.resolve(csvPath), start, end);
+  }
+
+  @Bean
+  @StepScope
+  public LineAlignedPartitioner csvPartitioner(
+    @Value("#{jobParameters['csvPath']}") String csvPath) {
+    return new LineAlignedPartitioner(CsvFiles.resolve(csvPath));
+  }
+
+  @Bean
+  @StepScope
+  public SimpleCompletionPolicy importChunkPolicy(
+    @Value("#{jobParameters['chunkSize'] ?: 1000}") int chunkSize) {
+    return new SimpleCompletionPolicy(chunkSize);
+  }
+
+  /**
+   * Launches jobs on virtual threads when {@code spring.threads.virtual.enabled} is set on Java 21,
+   * so {@link JobLauncher#run} returns once the job has started instead of when it completes.
+   */
+  @Bean
+  @BatchTaskExecutor
+  @ConditionalOnThreading(Threading.VIRTUAL)
+  public TaskExecutor batchTaskExecutor() {
+    var taskExecutor = new SimpleAsyncTaskExecutor("batch-");
+    taskExecutor.setVirtualThreads(true);
+    return taskExecutor;
+  }
+
+  @Bean
+  public ImportThroughputListener importThroughputListener(MeterRegistry meterRegistry) {
+    return new ImportThroughputListener(meterRegistry);
+  }
+
+  /**
+   * Empties {@code UK_POSTCODE} before a full import, now that the table outlives restarts. On a
+   * restart this step has completed already and is skipped, keeping the rows imported so far.
+   */
+  @Bean
+  public Step clearPostcodesStep(JobRepository jobRepository,
+    PlatformTransactionManager transactionManager, JdbcTemplate jdbcTemplate) {
+    return new StepBuilder("clearPostcodesStep", jobRepository)
+      .tasklet((contribution, chunkContext) -> {
+        jdbcTemplate.execute("TRUNCATE TABLE UK_POSTCODE");
+        return RepeatStatus.FINISHED;
+      }, transactionManager)
+      .build();
+  }
+
   @Bean
   public Step step1(JobRepository jobRepository, PlatformTransactionManager transactionManager,
-    FlatFileItemReader<PostcodeRecord> reader,
+    @Qualifier("reader") MappedCsvItemReader reader,
     ItemProcessor<PostcodeRecord, UkPostcode> processor,
-    ItemWriter<UkPostcode> writer) {
+    @Qualifier("postcodeWriter") ItemWriter<UkPostcode> writer,
+    SimpleCompletionPolicy importChunkPolicy,
+    ImportThroughputListener importThroughputListener) {
     return new StepBuilder("step1", jobRepository)
-      .<PostcodeRecord, UkPostcode>chunk(1000, transactionManager)
+      .<PostcodeRecord, UkPostcode>chunk(importChunkPolicy, transactionManager)
       .reader(reader)
       .processor(processor)
       .writer(writer)
+      .listener(importThroughputListener)
+      .build();
+  }
+
+  @Bean
+  public Step importWorkerStep(JobRepository jobRepository,
+    PlatformTransactionManager transactionManager,
+    @Qualifier("partitionReader") MappedCsvItemReader partitionReader,
+    ItemProcessor<PostcodeRecord, UkPostcode> processor,
+    @Qualifier("postcodeWriter") ItemWriter<UkPostcode> writer,
+    SimpleCompletionPolicy importChunkPolicy,
+    ImportThroughputListener importThroughputListener) {
+    return new StepBuilder("importWorkerStep", jobRepository)
+      .<PostcodeRecord, UkPostcode>chunk(importChunkPolicy, transactionManager)
+      .reader(partitionReader)
+      .processor(processor)
+      .writer(writer)
+      .listener(importThroughputListener)
       .build();
   }
 
   @Bean
-  public Job importJob(JobRepository jobRepository, Step step1) {
+  @JobScope
+  public Step partitionedImportStep(JobRepository jobRepository,
+    LineAlignedPartitioner csvPartitioner,
+    @Qualifier("importWorkerStep") Step importWorkerStep,
+    @Value("#{jobParameters['partitions'] ?: 4}") int partitions,
+    Environment environment) {
+    var taskExecutor = new SimpleAsyncTaskExecutor("import-");
+    taskExecutor.setConcurrencyLimit(partitions);
+    taskExecutor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+
+    return new StepBuilder("partitionedImportStep", jobRepository)
+      .partitioner(importWorkerStep.getName(), csvPartitioner)
+      .step(importWorkerStep)
+      .gridSize(partitions)
+      .taskExecutor(taskExecutor)
+      .build();
+  }
+
+  @Bean
+  public Step prepareStagingStep(JobRepository jobRepository,
+    PlatformTransactionManager transactionManager, JdbcTemplate jdbcTemplate) {
+    return new StepBuilder("prepareStagingStep", jobRepository)
+      .tasklet(new StagingTableTasklet(jdbcTemplate), transactionManager)
+      .build();
+  }
+
+  @Bean
+  public Step stagingStep(JobRepository jobRepository,
+    PlatformTransactionManager transactionManager,
+    @Qualifier("reader") MappedCsvItemReader reader,
+    ItemProcessor<PostcodeRecord, UkPostcode> processor,
+    @Qualifier("stagingWriter") ItemWriter<UkPostcode> stagingWriter,
+    SimpleCompletionPolicy importChunkPolicy,
+    ImportThroughputListener importThroughputListener) {
+    return new StepBuilder("stagingStep", jobRepository)
+      .<PostcodeRecord, UkPostcode>chunk(importChunkPolicy, transactionManager)
+      .reader(reader)
+      .processor(processor)
+      .writer(stagingWriter)
+      .listener(importThroughputListener)
+      .build();
+  }
+
+  @Bean
+  public Step applyDeltaStep(JobRepository jobRepository,
+    PlatformTransactionManager transactionManager, JdbcTemplate jdbcTemplate) {
+    return new StepBuilder("applyDeltaStep", jobRepository)
+      .tasklet(new PostcodeDeltaTasklet(jdbcTemplate), transactionManager)
+      .build();
+  }
+
+  @Bean
+  public Step prepareZoneTableStep(JobRepository jobRepository,
+    PlatformTransactionManager transactionManager, JdbcTemplate jdbcTemplate) {
+    return new StepBuilder("prepareZoneTableStep", jobRepository)
+      .tasklet(new ZoneTableTasklet(jdbcTemplate), transactionManager)
+      .build();
+  }
+
+  @Bean
+  @StepScope
+  public JdbcCursorItemReader<ZonePoint> zoneReader(DataSource dataSource,
+    @Value("#{stepExecutionContext['" + IdRangePartitioner.MIN_ID + "']}") long minId,
+    @Value("#{stepExecutionContext['" + IdRangePartitioner.MAX_ID + "']}") long maxId) {
+    return new JdbcCursorItemReaderBuilder<ZonePoint>()
+      .name("zoneReader")
+      .dataSource(dataSource)
+      .sql("SELECT POSTCODE_KEY, LATITUDE, LONGITUDE FROM UK_POSTCODE WHERE ID BETWEEN ? AND ?"
+        + " AND LATITUDE IS NOT NULL AND LONGITUDE IS NOT NULL ORDER BY ID")
+      .preparedStatementSetter(ps -> {
+        ps.setLong(1, minId);
+        ps.setLong(2, maxId);
+      })
+      .rowMapper((rs, rowNum) -> new ZonePoint(rs.getLong(1), rs.getDouble(2), rs.getDouble(3)))
+      .build();
+  }
+
+  @Bean
+  public ItemProcessor<ZonePoint, ZoneAssignment> zoneProcessor(ZoneIndex zoneIndex) {
+    return r -> {
+      var zone = zoneIndex.classify(r.latitude(), r.longitude());
+      // outside every zone; counted as filtered by the step
+      return zone == null ? null : new ZoneAssignment(r.postcodeKey(), zone.getId());
+    };
+  }
+
+  @Bean
+  public JdbcBatchItemWriter<ZoneAssignment> zoneWriter(DataSource dataSource) {
+    return new JdbcBatchItemWriterBuilder<ZoneAssignment>()
+      .sql("INSERT INTO " + ZoneTableTasklet.ZONE_TABLE + " (POSTCODE_KEY, ZONE_ID) VALUES (?, ?)")
+      .itemPreparedStatementSetter((item, ps) -> {
+        ps.setLong(1, item.postcodeKey());
+        ps.setString(2, item.zoneId());
+      })
+      .dataSource(dataSource)
+      .build();
+  }
+
+  @Bean
+  public Step zoneWorkerStep(JobRepository jobRepository,
+    PlatformTransactionManager transactionManager,
+    @Qualifier("zoneReader") JdbcCursorItemReader<ZonePoint> zoneReader,
+    ItemProcessor<ZonePoint, ZoneAssignment> zoneProcessor,
+    @Qualifier("zoneWriter") ItemWriter<ZoneAssignment> zoneWriter,
+    SimpleCompletionPolicy importChunkPolicy) {
+    return new StepBuilder("zoneWorkerStep", jobRepository)
+      .<ZonePoint, ZoneAssignment>chunk(importChunkPolicy, transactionManager)
+      .reader(zoneReader)
+      .processor(zoneProcessor)
+      .writer(zoneWriter)
+      .build();
+  }
+
+  /**
+   * Classifies {@code ID} ranges of {@code UK_POSTCODE} on {@code partitions} threads; the counts
+   * of this step add up those of its partitions.
+   */
+  @Bean
+  @JobScope
+  public Step zoneAssignmentStep(JobRepository jobRepository, JdbcTemplate jdbcTemplate,
+    @Qualifier("zoneWorkerStep") Step zoneWorkerStep,
+    @Value("#{jobParameters['partitions'] ?: 4}") int partitions,
+    Environment environment) {
+    var taskExecutor = new SimpleAsyncTaskExecutor("zones-");
+    taskExecutor.setConcurrencyLimit(partitions);
+    taskExecutor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+
+    return new StepBuilder("zoneAssignmentStep", jobRepository)
+      .partitioner(zoneWorkerStep.getName(), new IdRangePartitioner(jdbcTemplate))
+      .step(zoneWorkerStep)
+      .gridSize(partitions)
+      .taskExecutor(taskExecutor)
+      .build();
+  }
+
+  @Bean
+  public JobExecutionListener reloadIndexListener(PostcodeIndex postcodeIndex,
+    PostcodeCache postcodeCache, DistanceCache distanceCache) {
+    return new JobExecutionListener() {
+      @Override
+      public void beforeJob(JobExecution jobExecution) {
+        // the job rewrites UK_POSTCODE, after which the current file would load as valid
+        postcodeIndex.invalidateSnapshotFile();
+      }
+
+      @Override
+      public void afterJob(JobExecution jobExecution) {
+        if (jobExecution.getStatus() == BatchStatus.COMPLETED) {
+          postcodeCache.invalidateAll();
+          postcodeIndex.reload();
+          distanceCache.invalidateAll();
+          if (postcodeIndex.snapshot() != null) {
+            postcodeIndex.writeSnapshotFile(
+              CsvFiles.checksum(jobExecution.getJobParameters().getString("csvPath")));
+          }
+        }
+      }
+    };
+  }
+
+  @Bean
+  public Job importJob(JobRepository jobRepository,
+    @Qualifier("clearPostcodesStep") Step clearPostcodesStep, @Qualifier("step1") Step step1,
+    JobExecutionListener reloadIndexListener) {
     return new JobBuilder("importJob", jobRepository)
-      .start(step1)
+      .listener(reloadIndexListener)
+      .start(clearPostcodesStep)
+      .next(step1)
+      .build();
+  }
+
+  @Bean
+  public Job partitionedImportJob(JobRepository jobRepository,
+    @Qualifier("clearPostcodesStep") Step clearPostcodesStep,
+    @Qualifier("partitionedImportStep") Step partitionedImportStep,
+    JobExecutionListener reloadIndexListener) {
+    return new JobBuilder("partitionedImportJob", jobRepository)
+      .listener(reloadIndexListener)
+      .start(clearPostcodesStep)
+      .next(partitionedImportStep)
+      .build();
+  }
+
+  /**
+   * Loads the CSV into a staging table and applies only the differences to {@code UK_POSTCODE},
+   * which keeps serving the previous data until the delta is committed.
+   */
+  @Bean
+  public Job incrementalImportJob(JobRepository jobRepository,
+    @Qualifier("prepareStagingStep") Step prepareStagingStep,
+    @Qualifier("stagingStep") Step stagingStep,
+    @Qualifier("applyDeltaStep") Step applyDeltaStep,
+    JobExecutionListener reloadIndexListener) {
+    return new JobBuilder("incrementalImportJob", jobRepository)
+      .listener(reloadIndexListener)
+      .start(prepareStagingStep)
+      .next(stagingStep)
+      .next(applyDeltaStep)
       .build();
   }
 
+  /**
+   * Recomputes {@value ZoneTableTasklet#ZONE_TABLE}, the zone of every postcode with coordinates.
+   */
   @Bean
-  public CommandLineRunner runJob(JobLauncher jobLauncher, Job importJob) {
+  public Job zoneAssignmentJob(JobRepository jobRepository,
+    @Qualifier("prepareZoneTableStep") Step prepareZoneTableStep,
+    @Qualifier("zoneAssignmentStep") Step zoneAssignmentStep) {
+    return new JobBuilder("zoneAssignmentJob", jobRepository)
+      .start(prepareZoneTableStep)
+      .next(zoneAssignmentStep)
+      .build();
+  }
+
+  @Bean
+  public CommandLineRunner runJob(JobLauncher jobLauncher, JobExplorer jobExplorer,
+    @Qualifier("importJob") Job importJob,
+    @Qualifier("partitionedImportJob") Job partitionedImportJob,
+    @Qualifier("incrementalImportJob") Job incrementalImportJob,
+    @Qualifier("zoneAssignmentJob") Job zoneAssignmentJob,
+    PostcodeIndex postcodeIndex) {
     return args -> {
       log.info("Checking if importJob should run...");
 
-      String csvPath = null;
-      for (String arg : args) {
-        if (arg.startsWith("--csvPath=")) {
-          csvPath = arg.substring("--csvPath=".length());
+      String restartExecutionId = argValue(args, "restartExecutionId");
+      if (restartExecutionId != null) {
+        var execution = jobExplorer.getJobExecution(Long.parseLong(restartExecutionId));
+        if (execution == null) {
+          log.warn("Job execution {} does not exist. Skipping restart.", restartExecutionId);
+          return;
         }
+
+        String jobName = execution.getJobInstance().getJobName();
+        var job = Stream.of(partitionedImportJob, incrementalImportJob, zoneAssignmentJob)
+          .filter(j -> j.getName().equals(jobName))
+          .findFirst()
+          .orElse(importJob);
+        log.info("RESTARTING {} execution {}", job.getName(), restartExecutionId);
+        jobLauncher.run(job, execution.getJobParameters());
+        return;
       }
 
+      String csvPath = argValue(args, "csvPath");
       if (csvPath == null || csvPath.isBlank()) {
         log.info("csvPath is not provided. Skipping job execution.");
         return;
       }
-
-      log.info("RUNNING importJob with csvPath={}", csvPath);
+      if (postcodeIndex.hasSnapshotFileOf(CsvFiles.checksum(csvPath))) {
+        log.info("The index snapshot file was built from {}. Skipping job execution.", csvPath);
+        return;
+      }
 
       var jobParametersBuilder = new JobParametersBuilder()
         .addLong("run.id", System.currentTimeMillis())
         .addString("csvPath", csvPath);
 
-      jobLauncher.run(importJob, jobParametersBuilder.toJobParameters());
+      String chunkSize = argValue(args, "chunkSize");
+      if (chunkSize != null) {
+        jobParametersBuilder.addLong("chunkSize", Long.parseLong(chunkSize));
+      }
+
+      String partitions = argValue(args, "partitions");
+      var job = importJob;
+      if ("incremental".equals(argValue(args, "importMode"))) {
+        job = incrementalImportJob;
+      } else if (partitions != null && Long.parseLong(partitions) > 1) {
+        jobParametersBuilder.addLong("partitions", Long.parseLong(partitions));
+        job = partitionedImportJob;
+      }
+
+      log.info("RUNNING {} with csvPath={}", job.getName(), csvPath);
+      jobLauncher.run(job, jobParametersBuilder.toJobParameters());
     };
   }
+
+  private static String argValue(String[] args, String name) {
+    String prefix = "--" + name + "=";
+    String value = null;
+    for (String arg : args) {
+      if (arg.startsWith(prefix)) {
+        value = arg.substring(prefix.length());
+      }
+    }
+    return value;
+  }
 }
@@ -1,21 +1,59 @@
 package com.assessment.postcode.config;
 
+import com.assessment.postcode.security.ApiKeyAuthenticationFilter;
+import com.assessment.postcode.security.ApiKeyVerifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 
 @Configuration
 public class SecurityConfig {
 
+  /**
+   * Stateless chain for the postcode API, enabled with {@code postcode.security.mode=api-key}.
+   * Requests authenticate with an API key header; no session, request cache, anonymous user or
+   * logout handling is set up. Other paths keep the Basic Auth chain below. Startup fails when no
+   * key digest is configured in {@code postcode.security.api-keys}.
+   */
+  @Bean
+  @Order(1)
+  @ConditionalOnProperty(name = "postcode.security.mode", havingValue = "api-key")
+  public SecurityFilterChain apiKeyFilterChain(HttpSecurity http, ApiKeyVerifier apiKeyVerifier)
+    throws Exception {
+    if (!apiKeyVerifier.hasKeys()) {
+      throw new IllegalStateException(
+        "postcode.security.mode=api-key needs at least one digest in postcode.security.api-keys");
+    }
+    return http
+      .securityMatcher("/api/v1/postcodes/**")
+      .authorizeHttpRequests(auth -> auth.anyRequest().hasRole("ADMIN"))
+      .addFilterBefore(new ApiKeyAuthenticationFilter(apiKeyVerifier), AuthorizationFilter.class)
+      .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+      .exceptionHandling(exceptions -> exceptions
+        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+      .requestCache(AbstractHttpConfigurer::disable)
+      .anonymous(AbstractHttpConfigurer::disable)
+      .logout(AbstractHttpConfigurer::disable)
+      .csrf(AbstractHttpConfigurer::disable)
+      .build();
+  }
+
   @Bean
   public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
     return http
       .authorizeHttpRequests(auth -> auth
         .requestMatchers("/api/v1/postcodes/**").hasRole("ADMIN")
+        .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
         .anyRequest().authenticated()
       )
       .httpBasic(Customizer.withDefaults())
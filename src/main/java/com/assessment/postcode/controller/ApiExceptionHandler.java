@@ -0,0 +1,46 @@
+package com.assessment.postcode.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers a {@link ResponseStatusException} from any controller with its status and reason as
+ * plain text, and counts it in {@code postcode.api.errors} tagged by status.
+ */
+@RestControllerAdvice
+@Slf4j
+public class ApiExceptionHandler {
+
+  private final MeterRegistry meterRegistry;
+  private final Map<Integer, Counter> errorCounters = new ConcurrentHashMap<>();
+
+  public ApiExceptionHandler(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @ExceptionHandler(ResponseStatusException.class)
+  public ResponseEntity<String> handleResponseStatus(ResponseStatusException e) {
+    int status = e.getStatusCode().value();
+    log.debug("Answering with {}: {}", status, e.getReason());
+    this.errorCounters.computeIfAbsent(status, this::errorCounter).increment();
+    return ResponseEntity.status(e.getStatusCode())
+      .contentType(MediaType.TEXT_PLAIN)
+      .body(e.getReason());
+  }
+
+  private Counter errorCounter(int status) {
+    return Counter.builder("postcode.api.errors")
+      .description("Requests answered with an error status by the postcode API")
+      .tag("status", String.valueOf(status))
+      .register(this.meterRegistry);
+  }
+}
@@ -0,0 +1,108 @@
+package com.assessment.postcode.controller;
+
+import com.assessment.postcode.cache.DistanceCache;
+import com.assessment.postcode.cache.PostcodeCache;
+import com.assessment.postcode.model.CacheStatsApiRs;
+import com.assessment.postcode.model.ImportApiRq;
+import com.assessment.postcode.model.LookupStatsApiRs;
+import com.assessment.postcode.model.ZoneAssignmentApiRq;
+import com.assessment.postcode.service.CoalescingPostcodeLoader;
+import com.assessment.postcode.service.PostcodeImportService;
+import com.assessment.postcode.service.ZoneService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/admin/postcodes")
+@Slf4j
+public class PostcodeAdminController {
+
+  private final PostcodeCache postcodeCache;
+  private final DistanceCache distanceCache;
+  private final PostcodeImportService postcodeImportService;
+  private final ZoneService zoneService;
+  private final CoalescingPostcodeLoader postcodeLoader;
+
+  public PostcodeAdminController(PostcodeCache postcodeCache, DistanceCache distanceCache,
+    PostcodeImportService postcodeImportService, ZoneService zoneService,
+    CoalescingPostcodeLoader postcodeLoader) {
+    this.postcodeCache = postcodeCache;
+    this.distanceCache = distanceCache;
+    this.postcodeImportService = postcodeImportService;
+    this.zoneService = zoneService;
+    this.postcodeLoader = postcodeLoader;
+  }
+
+  @GetMapping("/cache")
+  public ResponseEntity<CacheStatsApiRs> getCacheStats() {
+    return ResponseEntity.ok(
+      this.toCacheStatsApiRs(this.postcodeCache.size(), this.postcodeCache.stats()));
+  }
+
+  @DeleteMapping("/cache")
+  public ResponseEntity<Void> clearCache() {
+    log.info("Clearing postcode cache");
+    this.postcodeCache.invalidateAll();
+    return ResponseEntity.noContent().build();
+  }
+
+  @GetMapping("/distance-cache")
+  public ResponseEntity<CacheStatsApiRs> getDistanceCacheStats() {
+    return ResponseEntity.ok(
+      this.toCacheStatsApiRs(this.distanceCache.size(), this.distanceCache.stats()));
+  }
+
+  @DeleteMapping("/distance-cache")
+  public ResponseEntity<Void> clearDistanceCache() {
+    log.info("Clearing distance cache");
+    this.distanceCache.invalidateAll();
+    return ResponseEntity.noContent().build();
+  }
+
+  @GetMapping("/lookups")
+  public ResponseEntity<LookupStatsApiRs> getLookupStats() {
+    var stats = this.postcodeLoader.stats();
+    return ResponseEntity.ok(LookupStatsApiRs.builder()
+      .loads(stats.loads())
+      .coalesced(stats.coalesced())
+      .batched(stats.batched())
+      .queries(stats.queries())
+      .build());
+  }
+
+  @PostMapping("/imports")
+  public ResponseEntity<?> startImport(@RequestBody ImportApiRq apiRq) {
+    return ResponseEntity.status(HttpStatus.ACCEPTED)
+      .body(this.postcodeImportService.startImport(apiRq));
+  }
+
+  @GetMapping("/imports/{executionId}")
+  public ResponseEntity<?> getImport(@PathVariable("executionId") long executionId) {
+    return ResponseEntity.ok(this.postcodeImportService.getImport(executionId));
+  }
+
+  @PostMapping("/zone-assignments")
+  public ResponseEntity<?> startZoneAssignment(
+    @RequestBody(required = false) ZoneAssignmentApiRq apiRq) {
+    return ResponseEntity.status(HttpStatus.ACCEPTED)
+      .body(this.zoneService.startAssignment(apiRq));
+  }
+
+  @GetMapping("/zone-assignments/{executionId}")
+  public ResponseEntity<?> getZoneAssignment(@PathVariable("executionId") long executionId) {
+    return ResponseEntity.ok(this.zoneService.getAssignment(executionId));
+  }
+
+  private CacheStatsApiRs toCacheStatsApiRs(long size, CacheStats stats) {
+    return CacheStatsApiRs.builder()
+      .size(size)
+      .hitCount(stats.hitCount())
+      .missCount(stats.missCount())
+      .hitRate(stats.hitRate())
+      .evictionCount(stats.evictionCount())
+      .build();
+  }
+}
@@ -0,0 +1,46 @@
+package com.assessment.postcode.controller;
+
+import com.assessment.postcode.service.ReactivePostcodeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variant of the lookup and distance endpoints, registered only while the in-memory
+ * index is disabled; with the index loaded the blocking endpoints never wait on I/O, and this
+ * variant would run the same work on the same thread. Responses are completed asynchronously, so
+ * a request waiting for the database holds a connection but no request thread. Errors are
+ * answered by {@link ApiExceptionHandler} once the {@code Mono} fails.
+ */
+@RestController
+@ConditionalOnProperty(name = "postcode.index.enabled", havingValue = "false", matchIfMissing = true)
+@RequestMapping("/api/v1/postcodes/uk/async")
+@Slf4j
+public class ReactivePostcodeController {
+
+  private final ReactivePostcodeService reactivePostcodeService;
+
+  public ReactivePostcodeController(ReactivePostcodeService reactivePostcodeService) {
+    this.reactivePostcodeService = reactivePostcodeService;
+  }
+
+  @GetMapping("/distance")
+  public Mono<ResponseEntity<?>> getPostcodesDistance(
+    @RequestParam(value = "postcode_1", required = true) String postcode1,
+    @RequestParam(value = "postcode_2", required = true) String postcode2,
+    @RequestParam(value = "mode", required = false) String mode) {
+
+    return this.reactivePostcodeService.constructPostcodesDistance(postcode1, postcode2, mode)
+      .<ResponseEntity<?>>map(ResponseEntity::ok);
+  }
+
+  @GetMapping("/{postcode}")
+  public Mono<ResponseEntity<?>> queryUkPostcode(
+    @PathVariable(value = "postcode", required = true) String postcode) {
+
+    return this.reactivePostcodeService.getByPostcode(postcode)
+      .<ResponseEntity<?>>map(ResponseEntity::ok);
+  }
+}
@@ -1,50 +1,145 @@
 package com.assessment.postcode.controller;
 
+import com.assessment.postcode.dto.UkPostcodeDto;
+import com.assessment.postcode.model.BatchLookupApiRq;
+import com.assessment.postcode.model.BulkUpdateCoordApiRq;
+import com.assessment.postcode.model.DistanceMatrixApiRq;
+import com.assessment.postcode.model.ReverseGeocodeApiRq;
 import com.assessment.postcode.model.UpdateCoordApiRq;
+import com.assessment.postcode.service.DistanceMatrix;
+import com.assessment.postcode.service.PostcodeBatchLookup;
 import com.assessment.postcode.service.PostcodeService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
 
 @RestController
 @RequestMapping("/api/v1/postcodes/uk")
 @Slf4j
 public class UkPostcodeController {
 
+  private static final int MATRIX_BLOCK_CELLS = 1 << 20;
+  private static final int LOOKUP_BLOCK_SIZE = 1000;
+
   private final PostcodeService postcodeService;
+  private final ObjectMapper objectMapper;
 
-  public UkPostcodeController(PostcodeService postcodeService) {
+  public UkPostcodeController(PostcodeService postcodeService, ObjectMapper objectMapper) {
     this.postcodeService = postcodeService;
+    this.objectMapper = objectMapper;
   }
 
   @GetMapping("/distance")
   public ResponseEntity<?> getPostcodesDistance(
     @RequestParam(value = "postcode_1", required = true) String postcode1,
-    @RequestParam(value = "postcode_2", required = true) String postcode2) {
+    @RequestParam(value = "postcode_2", required = true) String postcode2,
+    @RequestParam(value = "mode", required = false) String mode) {
 
     log.debug("Calculating distance between p1: {}, p2: {}", postcode1, postcode2);
 
-    try {
-      var apiRs = this.postcodeService.constructPostcodesDistance(postcode1, postcode2);
-      log.debug("Calculated distance between p1: {}, p2: {}, Distance: {}{}", postcode1, postcode2,
-        apiRs.getDistance().getValue(), apiRs.getDistance().getUnit());
-      return ResponseEntity.ok(apiRs);
-    } catch (ResponseStatusException e) {
-      return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
-    }
+    var apiRs = this.postcodeService.constructPostcodesDistance(postcode1, postcode2, mode);
+    log.debug("Calculated distance between p1: {}, p2: {}, Distance: {}{}", postcode1, postcode2,
+      apiRs.getDistance().getValue(), apiRs.getDistance().getUnit());
+    return ResponseEntity.ok(apiRs);
+  }
+
+  @PostMapping("/distance/matrix")
+  public ResponseEntity<StreamingResponseBody> getDistanceMatrix(
+    @RequestBody DistanceMatrixApiRq apiRq,
+    @RequestParam(value = "mode", required = false) String mode) {
+
+    var matrix = this.postcodeService.constructDistanceMatrix(apiRq.getOrigins(),
+      apiRq.getDestinations(), mode);
+    log.debug("Streaming distance matrix of {}x{}", matrix.getOrigins().size(),
+      matrix.getDestinations().size());
+    return ResponseEntity.ok()
+      .contentType(MediaType.APPLICATION_JSON)
+      .body(out -> this.writeDistanceMatrix(matrix, out));
+  }
+
+  /**
+   * Looks up many postcodes in one request. The response is NDJSON with one line per requested
+   * postcode, in request order, e.g. {@code {"query":"ab101xg","found":true,"postcode":{...}}}, or
+   * {@code {"query":"ZZ99 9ZZ","found":false}} for a miss.
+   */
+  @PostMapping("/lookup")
+  public ResponseEntity<StreamingResponseBody> lookupPostcodes(
+    @RequestBody BatchLookupApiRq apiRq) {
+
+    var lookup = this.postcodeService.lookupPostcodes(apiRq.getPostcodes());
+    log.debug("Streaming lookup of {} postcodes", lookup.getPostcodes().size());
+    return ResponseEntity.ok()
+      .contentType(MediaType.APPLICATION_NDJSON)
+      .body(out -> this.writeBatchLookup(lookup, out));
+  }
+
+  @GetMapping("/nearby")
+  public ResponseEntity<?> getPostcodesWithinRadius(
+    @RequestParam(value = "postcode", required = false) String postcode,
+    @RequestParam(value = "latitude", required = false) Double latitude,
+    @RequestParam(value = "longitude", required = false) Double longitude,
+    @RequestParam(value = "radius_km", required = true) double radiusKm,
+    @RequestParam(value = "limit", defaultValue = "100") int limit) {
+
+    return ResponseEntity.ok(this.postcodeService.findPostcodesWithinRadius(postcode, latitude,
+      longitude, radiusKm, limit));
+  }
+
+  @GetMapping("/nearest")
+  public ResponseEntity<?> getNearestPostcodes(
+    @RequestParam(value = "postcode", required = false) String postcode,
+    @RequestParam(value = "latitude", required = false) Double latitude,
+    @RequestParam(value = "longitude", required = false) Double longitude,
+    @RequestParam(value = "k", defaultValue = "10") int k) {
+
+    return ResponseEntity.ok(this.postcodeService.findNearestPostcodes(postcode, latitude,
+      longitude, k));
+  }
+
+  @GetMapping("/reverse")
+  public ResponseEntity<?> reverseGeocode(
+    @RequestParam(value = "latitude", required = true) Double latitude,
+    @RequestParam(value = "longitude", required = true) Double longitude) {
+
+    return ResponseEntity.ok(this.postcodeService.reverseGeocode(latitude, longitude));
+  }
+
+  @PostMapping("/reverse")
+  public ResponseEntity<?> reverseGeocodeBatch(@RequestBody ReverseGeocodeApiRq apiRq) {
+
+    return ResponseEntity.ok(this.postcodeService.reverseGeocode(apiRq.getPoints()));
+  }
+
+  @GetMapping("/outcode/{outcode}")
+  public ResponseEntity<?> getPostcodesByOutcode(
+    @PathVariable(value = "outcode", required = true) String outcode,
+    @RequestParam(value = "limit", defaultValue = "1000") int limit) {
+
+    return ResponseEntity.ok(this.postcodeService.findPostcodesByOutcode(outcode, limit));
+  }
+
+  @GetMapping("/sector/{sector}")
+  public ResponseEntity<?> getPostcodesBySector(
+    @PathVariable(value = "sector", required = true) String sector,
+    @RequestParam(value = "limit", defaultValue = "1000") int limit) {
+
+    return ResponseEntity.ok(this.postcodeService.findPostcodesBySector(sector, limit));
   }
 
   @GetMapping("/{postcode}")
   public ResponseEntity<?> queryUkPostcode(
     @PathVariable(value = "postcode", required = true) String postcode) {
 
-    try {
-      var dto = this.postcodeService.getByPostcode(postcode);
-      return ResponseEntity.ok(dto);
-    } catch (ResponseStatusException e) {
-      return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
-    }
+    var dto = this.postcodeService.getByPostcode(postcode);
+    return ResponseEntity.ok(dto);
   }
 
   @PatchMapping("/{postcode}/coordinates")
@@ -52,12 +147,68 @@ public class UkPostcodeController {
     @PathVariable(value = "postcode", required = true) String postcode,
     @RequestBody UpdateCoordApiRq apiRq) {
 
-    try {
-      return ResponseEntity.ok(
-        this.postcodeService.updateCoordinatesByPostcode(postcode, apiRq.getLatitude(),
-          apiRq.getLongitude()));
-    } catch (ResponseStatusException e) {
-      return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
+    return ResponseEntity.ok(
+      this.postcodeService.updateCoordinatesByPostcode(postcode, apiRq.getLatitude(),
+        apiRq.getLongitude()));
+  }
+
+  @PatchMapping("/coordinates")
+  public ResponseEntity<?> updateCoordinates(@RequestBody BulkUpdateCoordApiRq apiRq) {
+
+    return ResponseEntity.ok(this.postcodeService.updateCoordinates(apiRq.getUpdates()));
+  }
+
+  private void writeDistanceMatrix(DistanceMatrix matrix, OutputStream out) throws IOException {
+    int columns = matrix.getDestinations().size();
+    int rowCount = matrix.getOrigins().size();
+    var block = new double[Math.max(1, Math.min(rowCount, MATRIX_BLOCK_CELLS / columns))][columns];
+
+    try (var json = this.objectMapper.getFactory().createGenerator(out)
+      .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+      json.writeStartObject();
+      json.writeStringField("unit", "km");
+      json.writeStringField("mode", matrix.getMode().getValue());
+      json.writeObjectField("origins", matrix.getOrigins());
+      json.writeObjectField("destinations", matrix.getDestinations());
+      json.writeArrayFieldStart("rows");
+      for (int from = 0; from < rowCount; from += block.length) {
+        var rows = from + block.length <= rowCount ? block
+          : Arrays.copyOf(block, rowCount - from);
+        matrix.computeRows(from, rows);
+        for (double[] row : rows) {
+          json.writeArray(row, 0, columns);
+        }
+        json.flush();
+      }
+      json.writeEndArray();
+      json.writeEndObject();
+    }
+  }
+
+  private void writeBatchLookup(PostcodeBatchLookup lookup, OutputStream out)
+    throws IOException {
+    var postcodes = lookup.getPostcodes();
+    var block = new UkPostcodeDto[Math.min(postcodes.size(), LOOKUP_BLOCK_SIZE)];
+
+    try (var json = this.objectMapper.getFactory().createGenerator(out)
+      .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+      json.setRootValueSeparator(null);
+      for (int from = 0; from < postcodes.size(); from += block.length) {
+        var results = from + block.length <= postcodes.size() ? block
+          : Arrays.copyOf(block, postcodes.size() - from);
+        lookup.resolve(from, results);
+        for (int i = 0; i < results.length; i++) {
+          json.writeStartObject();
+          json.writeStringField("query", postcodes.get(from + i));
+          json.writeBooleanField("found", results[i] != null);
+          if (results[i] != null) {
+            json.writeObjectField("postcode", results[i]);
+          }
+          json.writeEndObject();
+          json.writeRaw('\n');
+        }
+        json.flush();
+      }
     }
   }
 }
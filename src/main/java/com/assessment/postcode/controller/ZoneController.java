@@ -0,0 +1,35 @@
+package com.assessment.postcode.controller;
+
+import com.assessment.postcode.service.ZoneService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/postcodes/uk")
+@Slf4j
+public class ZoneController {
+
+  private final ZoneService zoneService;
+
+  public ZoneController(ZoneService zoneService) {
+    this.zoneService = zoneService;
+  }
+
+  @GetMapping("/zones")
+  public ResponseEntity<?> getZones() {
+    return ResponseEntity.ok(this.zoneService.getZones());
+  }
+
+  @GetMapping("/zone")
+  public ResponseEntity<?> classify(
+    @RequestParam(value = "postcode", required = false) String postcode,
+    @RequestParam(value = "latitude", required = false) Double latitude,
+    @RequestParam(value = "longitude", required = false) Double longitude) {
+
+    return ResponseEntity.ok(this.zoneService.classify(postcode, latitude, longitude));
+  }
+}
@@ -5,8 +5,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @Builder
 @NoArgsConstructor
@@ -17,7 +15,7 @@ public class UkPostcodeDto {
 
   private String postcode;
 
-  private BigDecimal latitude;
+  private Double latitude;
 
-  private BigDecimal longitude;
+  private Double longitude;
 }
@@ -6,8 +6,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Entity
 @Table(name = "UK_POSTCODE")
 @Data
@@ -23,9 +21,13 @@ public class UkPostcode {
   @Column(name = "POSTCODE", unique = true, nullable = false)
   private String postcode;
 
+  // PostcodeKeys.key of the postcode, which is stored in canonical form
+  @Column(name = "POSTCODE_KEY", unique = true, nullable = false)
+  private long postcodeKey;
+
   @Column(name = "LATITUDE")
-  private BigDecimal latitude;
+  private Double latitude;
 
   @Column(name = "LONGITUDE")
-  private BigDecimal longitude;
+  private Double longitude;
 }
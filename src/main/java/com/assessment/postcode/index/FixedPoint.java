@@ -0,0 +1,50 @@
+package com.assessment.postcode.index;
+
+/**
+ * Coordinates held as micro-degrees in an {@code int}; six decimal places is the precision of
+ * the ONS source file, and a latitude/longitude pair packs into a single {@code long}.
+ */
+public final class FixedPoint {
+
+  public static final int SCALE = 6;
+
+  /**
+   * Marker for a missing coordinate; a pair of missing coordinates packs to {@code Long.MIN_VALUE}.
+   */
+  public static final int NONE = Integer.MIN_VALUE;
+
+  private static final double MICROS_PER_DEGREE = 1_000_000d;
+
+  private FixedPoint() {
+  }
+
+  /**
+   * @return the degrees rounded to micro-degrees, or {@link #NONE} for {@code NaN}
+   */
+  public static int toMicros(double degrees) {
+    return Double.isNaN(degrees) ? NONE : (int) Math.round(degrees * MICROS_PER_DEGREE);
+  }
+
+  public static double toDegrees(int micros) {
+    return micros == NONE ? Double.NaN : micros / MICROS_PER_DEGREE;
+  }
+
+  /**
+   * @return the degrees, or {@code null} for {@link #NONE}
+   */
+  public static Double toDegreesOrNull(int micros) {
+    return micros == NONE ? null : micros / MICROS_PER_DEGREE;
+  }
+
+  public static long pack(int latitudeMicros, int longitudeMicros) {
+    return ((long) latitudeMicros << 32) | (longitudeMicros & 0xFFFFFFFFL);
+  }
+
+  public static int latitudeMicros(long packed) {
+    return (int) (packed >> 32);
+  }
+
+  public static int longitudeMicros(long packed) {
+    return (int) packed;
+  }
+}
@@ -0,0 +1,297 @@
+package com.assessment.postcode.index;
+
+import com.assessment.postcode.service.GeoDistance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Buckets index slots into fixed-size latitude/longitude cells, roughly 1 km across in the UK.
+ * Queries visit only the cells that can hold a match and filter candidates with the exact
+ * haversine distance.
+ *
+ * <p>A slot is only reported from the cell that its current coordinates fall in. Moving a slot
+ * adds it to the new cell before its coordinates change and removes it from the old cell after,
+ * so concurrent readers see every slot exactly once without locking.
+ */
+public class GeoGrid {
+
+  static final int CELL_LATITUDE_MICROS = 10_000;
+  static final int CELL_LONGITUDE_MICROS = 20_000;
+
+  private static final long NO_CELL = Long.MIN_VALUE;
+  private static final double KM_PER_DEGREE = Math.PI * GeoDistance.EARTH_RADIUS / 180;
+  private static final int[] EMPTY = new int[0];
+
+  private final SlotStore store;
+  private final Map<Long, int[]> cells = new ConcurrentHashMap<>();
+
+  private volatile int minLatitudeCell = Integer.MAX_VALUE;
+  private volatile int maxLatitudeCell = Integer.MIN_VALUE;
+  private volatile int minLongitudeCell = Integer.MAX_VALUE;
+  private volatile int maxLongitudeCell = Integer.MIN_VALUE;
+
+  public record Neighbour(int slot, double distanceKm) {
+  }
+
+  GeoGrid(SlotStore store) {
+    this.store = store;
+
+    // group slots by cell with a sort and binary searches rather than a map per slot, which
+    // matters when the index is restored from a snapshot file at startup
+    long[] slotCells = new long[store.size()];
+    for (int slot = 0; slot < slotCells.length; slot++) {
+      slotCells[slot] = cellOf(store.coordinates(slot));
+    }
+    long[] distinct = slotCells.clone();
+    Arrays.sort(distinct);
+    int distinctCount = 0;
+    for (long cell : distinct) {
+      if (cell != NO_CELL && (distinctCount == 0 || distinct[distinctCount - 1] != cell)) {
+        distinct[distinctCount++] = cell;
+      }
+    }
+    distinct = Arrays.copyOf(distinct, distinctCount);
+
+    int[] counts = new int[distinctCount];
+    int[] cellIndexes = new int[slotCells.length];
+    for (int slot = 0; slot < slotCells.length; slot++) {
+      cellIndexes[slot] = slotCells[slot] == NO_CELL ? -1
+        : Arrays.binarySearch(distinct, slotCells[slot]);
+      if (cellIndexes[slot] >= 0) {
+        counts[cellIndexes[slot]]++;
+      }
+    }
+    int[][] slots = new int[distinctCount][];
+    for (int i = 0; i < distinctCount; i++) {
+      slots[i] = new int[counts[i]];
+      counts[i] = 0;
+    }
+    for (int slot = 0; slot < slotCells.length; slot++) {
+      int index = cellIndexes[slot];
+      if (index >= 0) {
+        slots[index][counts[index]++] = slot;
+      }
+    }
+
+    int minLongitude = Integer.MAX_VALUE;
+    int maxLongitude = Integer.MIN_VALUE;
+    for (int i = 0; i < distinctCount; i++) {
+      this.cells.put(distinct[i], slots[i]);
+      minLongitude = Math.min(minLongitude, (int) distinct[i]);
+      maxLongitude = Math.max(maxLongitude, (int) distinct[i]);
+    }
+    if (distinctCount > 0) {
+      // cells sort by latitude first, so the ends of the array hold the latitude bounds
+      this.extendBounds(cellKey((int) (distinct[0] >> 32), minLongitude));
+      this.extendBounds(cellKey((int) (distinct[distinctCount - 1] >> 32), maxLongitude));
+    }
+  }
+
+  public int cellCount() {
+    return this.cells.size();
+  }
+
+  /**
+   * Adds the slot to the cell of {@code newCoordinates}. Call before the slot's coordinates are
+   * changed, then call {@link #removeFromCell} with the previous coordinates.
+   */
+  synchronized void addToCell(int slot, long newCoordinates) {
+    long cell = cellOf(newCoordinates);
+    if (cell == NO_CELL) {
+      return;
+    }
+    int[] slots = this.cells.getOrDefault(cell, EMPTY);
+    for (int existing : slots) {
+      if (existing == slot) {
+        return;
+      }
+    }
+    int[] updated = Arrays.copyOf(slots, slots.length + 1);
+    updated[slots.length] = slot;
+    this.cells.put(cell, updated);
+    this.extendBounds(cell);
+  }
+
+  synchronized void removeFromCell(int slot, long oldCoordinates) {
+    long cell = cellOf(oldCoordinates);
+    if (cell == NO_CELL || cell == cellOf(this.store.coordinates(slot))) {
+      return;
+    }
+    int[] slots = this.cells.getOrDefault(cell, EMPTY);
+    int[] updated = Arrays.stream(slots).filter(s -> s != slot).toArray();
+    if (updated.length == 0) {
+      this.cells.remove(cell);
+    } else {
+      this.cells.put(cell, updated);
+    }
+  }
+
+  /**
+   * @return up to {@code limit} slots within {@code radiusKm}, nearest first
+   */
+  public List<Neighbour> withinRadius(double latitude, double longitude, double radiusKm,
+    int limit) {
+    double latitudeDelta = radiusKm / KM_PER_DEGREE;
+    double widestLatitude = Math.min(Math.abs(latitude) + latitudeDelta, 89.9);
+    double longitudeDelta = latitudeDelta / Math.cos(Math.toRadians(widestLatitude));
+
+    int fromLatitudeCell = latitudeCell(FixedPoint.toMicros(latitude - latitudeDelta));
+    int toLatitudeCell = latitudeCell(FixedPoint.toMicros(latitude + latitudeDelta));
+    int fromLongitudeCell = longitudeCell(FixedPoint.toMicros(longitude - longitudeDelta));
+    int toLongitudeCell = longitudeCell(FixedPoint.toMicros(longitude + longitudeDelta));
+
+    var query = new Query(latitude, longitude);
+    List<Neighbour> matches = new ArrayList<>();
+    for (int latCell = fromLatitudeCell; latCell <= toLatitudeCell; latCell++) {
+      for (int lonCell = fromLongitudeCell; lonCell <= toLongitudeCell; lonCell++) {
+        long cell = cellKey(latCell, lonCell);
+        for (int slot : this.cells.getOrDefault(cell, EMPTY)) {
+          long packed = this.store.coordinates(slot);
+          if (cellOf(packed) == cell) {
+            double distance = query.distanceKm(packed);
+            if (distance <= radiusKm) {
+              matches.add(new Neighbour(slot, distance));
+            }
+          }
+        }
+      }
+    }
+
+    matches.sort(Comparator.comparingDouble(Neighbour::distanceKm));
+    return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+  }
+
+  /**
+   * @return the {@code k} slots nearest to the point, nearest first
+   */
+  public List<Neighbour> nearest(double latitude, double longitude, int k) {
+    var query = new Query(latitude, longitude);
+    var farthestFirst = new PriorityQueue<Neighbour>(
+      Comparator.comparingDouble(Neighbour::distanceKm).reversed());
+
+    if (this.cells.isEmpty()) {
+      return List.of();
+    }
+
+    int centreLatitudeCell = latitudeCell(FixedPoint.toMicros(latitude));
+    int centreLongitudeCell = longitudeCell(FixedPoint.toMicros(longitude));
+    double minCellKm = this.minCellWidthKm();
+
+    for (int ring = 0; ; ring++) {
+      // every slot in this ring or beyond is at least ring - 1 whole cells away
+      if (farthestFirst.size() == k
+        && farthestFirst.peek().distanceKm() <= (ring - 1) * minCellKm) {
+        break;
+      }
+      for (int latCell = centreLatitudeCell - ring; latCell <= centreLatitudeCell + ring;
+        latCell++) {
+        boolean edgeRow = Math.abs(latCell - centreLatitudeCell) == ring;
+        int step = edgeRow ? 1 : 2 * ring;
+        for (int lonCell = centreLongitudeCell - ring; lonCell <= centreLongitudeCell + ring;
+          lonCell += step) {
+          this.collect(cellKey(latCell, lonCell), query, k, farthestFirst);
+        }
+      }
+      if (this.ringCoversBounds(centreLatitudeCell, centreLongitudeCell, ring)) {
+        break;
+      }
+    }
+
+    var nearest = new ArrayList<>(farthestFirst);
+    nearest.sort(Comparator.comparingDouble(Neighbour::distanceKm));
+    return nearest;
+  }
+
+  private void collect(long cell, Query query, int k, PriorityQueue<Neighbour> farthestFirst) {
+    for (int slot : this.cells.getOrDefault(cell, EMPTY)) {
+      long packed = this.store.coordinates(slot);
+      if (cellOf(packed) != cell) {
+        continue;
+      }
+      double distance = query.distanceKm(packed);
+      if (farthestFirst.size() < k) {
+        farthestFirst.add(new Neighbour(slot, distance));
+      } else if (distance < farthestFirst.peek().distanceKm()) {
+        farthestFirst.poll();
+        farthestFirst.add(new Neighbour(slot, distance));
+      }
+    }
+  }
+
+  private boolean ringCoversBounds(int latitudeCell, int longitudeCell, int ring) {
+    return latitudeCell - ring <= this.minLatitudeCell
+      && latitudeCell + ring >= this.maxLatitudeCell
+      && longitudeCell - ring <= this.minLongitudeCell
+      && longitudeCell + ring >= this.maxLongitudeCell;
+  }
+
+  /**
+   * @return a lower bound for the width of any occupied cell, which narrows towards the poles
+   */
+  private double minCellWidthKm() {
+    double maxAbsLatitude = Math.min(89.9, Math.max(Math.abs(this.minLatitudeCell),
+      Math.abs(this.maxLatitudeCell + 1)) * (CELL_LATITUDE_MICROS / 1_000_000d));
+    double narrowest = Math.min(CELL_LATITUDE_MICROS,
+      CELL_LONGITUDE_MICROS * Math.cos(Math.toRadians(maxAbsLatitude)));
+    // small margin for the difference between a parallel and the great circle
+    return 0.99 * narrowest / 1_000_000d * KM_PER_DEGREE;
+  }
+
+  private void extendBounds(long cell) {
+    int latCell = (int) (cell >> 32);
+    int lonCell = (int) cell;
+    this.minLatitudeCell = Math.min(this.minLatitudeCell, latCell);
+    this.maxLatitudeCell = Math.max(this.maxLatitudeCell, latCell);
+    this.minLongitudeCell = Math.min(this.minLongitudeCell, lonCell);
+    this.maxLongitudeCell = Math.max(this.maxLongitudeCell, lonCell);
+  }
+
+  static long cellOf(long packed) {
+    int latitude = FixedPoint.latitudeMicros(packed);
+    int longitude = FixedPoint.longitudeMicros(packed);
+    if (latitude == FixedPoint.NONE || longitude == FixedPoint.NONE
+      || Math.abs(latitude) > 90_000_000 || Math.abs(longitude) > 180_000_000) {
+      return NO_CELL;
+    }
+    return cellKey(latitudeCell(latitude), longitudeCell(longitude));
+  }
+
+  private static long cellKey(int latitudeCell, int longitudeCell) {
+    return ((long) latitudeCell << 32) | (longitudeCell & 0xFFFFFFFFL);
+  }
+
+  private static int latitudeCell(int latitudeMicros) {
+    return Math.floorDiv(latitudeMicros, CELL_LATITUDE_MICROS);
+  }
+
+  private static int longitudeCell(int longitudeMicros) {
+    return Math.floorDiv(longitudeMicros, CELL_LONGITUDE_MICROS);
+  }
+
+  private static final class Query {
+
+    private final double latitudeRadians;
+    private final double longitudeRadians;
+    private final double cosLatitude;
+
+    Query(double latitude, double longitude) {
+      this.latitudeRadians = Math.toRadians(latitude);
+      this.longitudeRadians = Math.toRadians(longitude);
+      this.cosLatitude = Math.cos(this.latitudeRadians);
+    }
+
+    double distanceKm(long packed) {
+      double latitude = Math.toRadians(FixedPoint.toDegrees(FixedPoint.latitudeMicros(packed)));
+      double longitude = Math.toRadians(FixedPoint.toDegrees(FixedPoint.longitudeMicros(packed)));
+      return GeoDistance.haversineKm(this.latitudeRadians, this.longitudeRadians,
+        this.cosLatitude, latitude, longitude, Math.cos(latitude));
+    }
+  }
+}
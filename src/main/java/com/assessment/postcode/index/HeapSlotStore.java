@@ -0,0 +1,50 @@
+package com.assessment.postcode.index;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Slot columns held in Java arrays; the default storage of the index.
+ */
+public final class HeapSlotStore implements SlotStore {
+
+  private final long[] keys;
+  private final long[] ids;
+  private final AtomicLongArray coordinates;
+
+  public HeapSlotStore(long[] keys, long[] ids, long[] coordinates) {
+    this.keys = keys;
+    this.ids = ids;
+    this.coordinates = new AtomicLongArray(coordinates);
+  }
+
+  @Override
+  public int size() {
+    return this.keys.length;
+  }
+
+  @Override
+  public long key(int slot) {
+    return this.keys[slot];
+  }
+
+  @Override
+  public long id(int slot) {
+    return this.ids[slot];
+  }
+
+  @Override
+  public long coordinates(int slot) {
+    return this.coordinates.get(slot);
+  }
+
+  @Override
+  public long getAndSetCoordinates(int slot, long packed) {
+    return this.coordinates.getAndSet(slot, packed);
+  }
+
+  @Override
+  public int binarySearch(long key) {
+    return Arrays.binarySearch(this.keys, key);
+  }
+}
@@ -0,0 +1,83 @@
+package com.assessment.postcode.index;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Slot columns held outside the Java heap, so the key, id and coordinate columns add neither to
+ * heap size nor to the work of the garbage collector. Keys and ids are read from any
+ * little-endian buffer, typically slices of a memory-mapped {@link SnapshotFile} that the
+ * operating system pages in on demand. Coordinates are copied into a direct buffer of their own,
+ * because they are updated in place.
+ */
+public final class OffHeapSlotStore implements SlotStore {
+
+  private static final VarHandle LONGS =
+    MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+  private final ByteBuffer keys;
+  private final ByteBuffer ids;
+  private final ByteBuffer coordinates;
+  private final int size;
+
+  /**
+   * @param keys sorted postcode keys, little-endian
+   * @param ids row ids, little-endian
+   * @param coordinates packed coordinates, little-endian; copied
+   */
+  public OffHeapSlotStore(ByteBuffer keys, ByteBuffer ids, ByteBuffer coordinates) {
+    this.size = keys.capacity() / Long.BYTES;
+    this.keys = keys.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    this.ids = ids.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+
+    // aligned so that the coordinates can be read and swapped atomically
+    this.coordinates = ByteBuffer.allocateDirect(this.size * Long.BYTES + Long.BYTES - 1)
+      .alignedSlice(Long.BYTES)
+      .order(ByteOrder.nativeOrder());
+    var source = coordinates.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    for (int slot = 0; slot < this.size; slot++) {
+      this.coordinates.putLong(slot * Long.BYTES, source.getLong(slot * Long.BYTES));
+    }
+  }
+
+  /**
+   * Copies heap columns into direct buffers.
+   */
+  public static OffHeapSlotStore copyOf(long[] keys, long[] ids, long[] coordinates) {
+    return new OffHeapSlotStore(direct(keys), direct(ids), direct(coordinates));
+  }
+
+  private static ByteBuffer direct(long[] values) {
+    var buffer = ByteBuffer.allocateDirect(values.length * Long.BYTES)
+      .order(ByteOrder.LITTLE_ENDIAN);
+    buffer.asLongBuffer().put(values);
+    return buffer;
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public long key(int slot) {
+    return this.keys.getLong(slot * Long.BYTES);
+  }
+
+  @Override
+  public long id(int slot) {
+    return this.ids.getLong(slot * Long.BYTES);
+  }
+
+  @Override
+  public long coordinates(int slot) {
+    return (long) LONGS.getVolatile(this.coordinates, slot * Long.BYTES);
+  }
+
+  @Override
+  public long getAndSetCoordinates(int slot, long packed) {
+    return (long) LONGS.getAndSet(this.coordinates, slot * Long.BYTES, packed);
+  }
+}
@@ -0,0 +1,423 @@
+package com.assessment.postcode.index;
+
+import com.assessment.postcode.dto.UkPostcodeDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Read-optimised copy of the {@code UK_POSTCODE} table. Postcode keys (see {@link PostcodeKeys})
+ * are held in a sorted {@code long[]} and coordinates as packed micro-degrees, so a lookup is a
+ * binary search plus two array reads and an outcode or sector is a contiguous run of slots. A
+ * {@link GeoGrid} over the same slots answers radius and nearest-neighbour queries.
+ *
+ * <p>The index is disabled unless {@code postcode.index.enabled} is set. Callers should take a
+ * {@link #snapshot()} once per request and resolve every slot against that same snapshot.
+ *
+ * <p>When {@code postcode.index.snapshot-path} is set, the index is written to that
+ * {@link SnapshotFile} after each import and restored from it on startup, skipping the table scan.
+ * Imports and coordinate updates delete the file through {@link #invalidateSnapshotFile()} before
+ * they write the table, so a crash after their commit can only leave no file, never a stale one.
+ *
+ * <p>{@code postcode.index.storage} selects where the key, id and coordinate columns live:
+ * {@code heap} keeps them in {@code long[]} arrays, {@code off-heap} in direct buffers (see
+ * {@link OffHeapSlotStore}), which takes the three largest per-row arrays off the heap. The
+ * {@link GeoGrid} cells stay on the heap in either mode, one {@code int} per postcode with
+ * coordinates, and building the grid, or loading the columns from the table, allocates temporary
+ * arrays sized to the row count.
+ */
+@Component
+@Slf4j
+public class PostcodeIndex {
+
+  private static final String SELECT_ALL =
+    "SELECT ID, POSTCODE_KEY, LATITUDE, LONGITUDE FROM UK_POSTCODE ORDER BY POSTCODE_KEY";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final boolean enabled;
+  private final Path snapshotPath;
+  private final boolean offHeap;
+  private final Object reloadLock = new Object();
+
+  private volatile Snapshot snapshot;
+
+  // coordinate writes made while a reload is reading the table, replayed onto the new snapshot
+  private Map<Long, Long> pendingUpdates;
+
+  // whether the snapshot file may exist and match the table, so updates know to delete it
+  private boolean snapshotFileCurrent = true;
+
+  public PostcodeIndex(JdbcTemplate jdbcTemplate,
+    @Value("${postcode.index.enabled:false}") boolean enabled,
+    @Value("${postcode.index.snapshot-path:}") String snapshotPath,
+    @Value("${postcode.index.storage:heap}") String storage) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.enabled = enabled;
+    this.snapshotPath = snapshotPath == null || snapshotPath.isBlank() ? null
+      : Path.of(snapshotPath);
+    this.offHeap = switch (storage) {
+      case "heap" -> false;
+      case "off-heap" -> true;
+      default -> throw new IllegalArgumentException(
+        "postcode.index.storage must be heap or off-heap, not " + storage);
+    };
+  }
+
+  public boolean isEnabled() {
+    return this.enabled;
+  }
+
+  /**
+   * @return the current snapshot, or {@code null} when the index is disabled or not yet loaded
+   */
+  public Snapshot snapshot() {
+    return this.snapshot;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadOnStartup() {
+    if (this.enabled && this.snapshot == null && !this.loadSnapshotFile()) {
+      this.reload();
+    }
+  }
+
+  /**
+   * @return whether the snapshot file was written after importing a CSV with this checksum and
+   *   still holds as many postcodes as the table, in which case the import can be skipped
+   */
+  public boolean hasSnapshotFileOf(long sourceChecksum) {
+    if (!this.enabled || this.snapshotPath == null) {
+      return false;
+    }
+    try {
+      var header = SnapshotFile.readHeader(this.snapshotPath);
+      return header != null && header.isCurrentVersion()
+        && header.sourceChecksum() == sourceChecksum
+        && header.count() == this.countRows();
+    } catch (IOException e) {
+      log.warn("Unable to read snapshot file {}", this.snapshotPath, e);
+      return false;
+    }
+  }
+
+  /**
+   * Writes the current snapshot to the snapshot file, recording the checksum of the CSV the table
+   * was imported from.
+   */
+  public synchronized void writeSnapshotFile(long sourceChecksum) {
+    if (this.snapshotPath == null || this.snapshot == null) {
+      return;
+    }
+    long start = System.nanoTime();
+    try {
+      SnapshotFile.write(this.snapshotPath, this.snapshot, sourceChecksum);
+      this.snapshotFileCurrent = true;
+      log.info("Wrote {} postcodes to snapshot file {} in {} ms", this.snapshot.size(),
+        this.snapshotPath, (System.nanoTime() - start) / 1_000_000);
+    } catch (IOException e) {
+      // the next startup falls back to the table, so a failed write costs time, not data
+      log.warn("Unable to write snapshot file {}", this.snapshotPath, e);
+    }
+  }
+
+  /**
+   * Deletes the snapshot file ahead of a write to the table. Call it before the write starts, not
+   * after it commits, so there is no window in which the table has changed and the file still
+   * loads as valid.
+   *
+   * @throws UncheckedIOException when the file cannot be deleted, in which case the write must not
+   *   go ahead
+   */
+  public synchronized void invalidateSnapshotFile() {
+    if (!this.snapshotFileCurrent || this.snapshotPath == null) {
+      return;
+    }
+    try {
+      this.deleteSnapshotFile();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to delete snapshot file " + this.snapshotPath, e);
+    }
+  }
+
+  private void deleteSnapshotFile() throws IOException {
+    Files.deleteIfExists(this.snapshotPath);
+    this.snapshotFileCurrent = false;
+  }
+
+  private boolean loadSnapshotFile() {
+    if (this.snapshotPath == null || !Files.isRegularFile(this.snapshotPath)) {
+      return false;
+    }
+    long start = System.nanoTime();
+    try {
+      var loaded = SnapshotFile.read(this.snapshotPath, this.offHeap);
+      if (loaded.size() != this.countRows()) {
+        log.info("Snapshot file {} does not match the table, loading from the table instead",
+          this.snapshotPath);
+        return false;
+      }
+      synchronized (this) {
+        this.snapshot = loaded;
+      }
+      log.info("Loaded {} postcodes into the index from {} in {} ms", loaded.size(),
+        this.snapshotPath, (System.nanoTime() - start) / 1_000_000);
+      return true;
+    } catch (IOException e) {
+      log.warn("Unable to load snapshot file {}, loading from the table instead",
+        this.snapshotPath, e);
+      return false;
+    }
+  }
+
+  public void reload() {
+    if (!this.enabled) {
+      return;
+    }
+
+    synchronized (this.reloadLock) {
+      long start = System.nanoTime();
+      synchronized (this) {
+        this.pendingUpdates = new HashMap<>();
+      }
+      try {
+        var loaded = this.load();
+        synchronized (this) {
+          this.pendingUpdates.forEach(loaded::setCoordinates);
+          this.snapshot = loaded;
+        }
+        log.info("Loaded {} postcodes into the index in {} ms", loaded.size(),
+          (System.nanoTime() - start) / 1_000_000);
+      } finally {
+        synchronized (this) {
+          this.pendingUpdates = null;
+        }
+      }
+    }
+  }
+
+  /**
+   * Applies a coordinate change that has already been written to the database.
+   */
+  public synchronized void updateCoordinates(String postcode, double latitude, double longitude) {
+    long key = PostcodeKeys.key(postcode);
+    long coordinates = FixedPoint.pack(FixedPoint.toMicros(latitude),
+      FixedPoint.toMicros(longitude));
+
+    if (this.pendingUpdates != null) {
+      this.pendingUpdates.put(key, coordinates);
+    }
+    if (this.snapshot != null) {
+      this.snapshot.setCoordinates(key, coordinates);
+    }
+    // invalidateSnapshotFile ran before the write, but a snapshot file may have been written since
+    if (this.snapshotFileCurrent && this.snapshotPath != null) {
+      try {
+        this.deleteSnapshotFile();
+      } catch (IOException e) {
+        log.warn("Unable to delete stale snapshot file {}", this.snapshotPath, e);
+      }
+    }
+  }
+
+  private int countRows() {
+    Integer count = this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM UK_POSTCODE",
+      Integer.class);
+    return count == null ? 0 : count;
+  }
+
+  private Snapshot load() {
+    var builder = new SnapshotBuilder(this.countRows());
+
+    this.jdbcTemplate.query(SELECT_ALL, rs -> {
+      long id = rs.getLong(1);
+      long key = rs.getLong(2);
+      double latitude = rs.getDouble(3);
+      int latitudeMicros = rs.wasNull() ? FixedPoint.NONE : FixedPoint.toMicros(latitude);
+      double longitude = rs.getDouble(4);
+      int longitudeMicros = rs.wasNull() ? FixedPoint.NONE : FixedPoint.toMicros(longitude);
+      builder.add(id, key, latitudeMicros, longitudeMicros);
+    });
+    return builder.build(this.offHeap);
+  }
+
+  public static final class Snapshot {
+
+    private final SlotStore store;
+    private final GeoGrid grid;
+
+    Snapshot(SlotStore store) {
+      this.store = store;
+      this.grid = new GeoGrid(store);
+    }
+
+    public int size() {
+      return this.store.size();
+    }
+
+    /**
+     * @return the slot of the postcode, in any case and spacing, or {@code -1} when it is not
+     *   indexed
+     */
+    public int slotOf(String postcode) {
+      long key = PostcodeKeys.key(postcode);
+      if (key == PostcodeKeys.INVALID) {
+        return -1;
+      }
+      int slot = this.store.binarySearch(key);
+      return slot >= 0 ? slot : -1;
+    }
+
+    /**
+     * @return the first slot whose key is in the range, or the first slot after it
+     */
+    public int rangeStart(PostcodeKeys.Range range) {
+      return this.lowerBound(range.from());
+    }
+
+    /**
+     * @return the slot after the last one whose key is in the range
+     */
+    public int rangeEnd(PostcodeKeys.Range range) {
+      return range.to() == Long.MAX_VALUE ? this.size() : this.lowerBound(range.to() + 1);
+    }
+
+    private int lowerBound(long key) {
+      int slot = this.store.binarySearch(key);
+      return slot >= 0 ? slot : -slot - 1;
+    }
+
+    long key(int slot) {
+      return this.store.key(slot);
+    }
+
+    public long id(int slot) {
+      return this.store.id(slot);
+    }
+
+    public String postcode(int slot) {
+      return PostcodeKeys.unpack(this.store.key(slot));
+    }
+
+    /**
+     * @return latitude and longitude of the slot, packed with {@link FixedPoint#pack}
+     */
+    public long coordinates(int slot) {
+      return this.store.coordinates(slot);
+    }
+
+    public UkPostcodeDto toDto(int slot) {
+      long packed = this.coordinates(slot);
+      return UkPostcodeDto.builder()
+        .id(this.store.id(slot))
+        .postcode(this.postcode(slot))
+        .latitude(FixedPoint.toDegreesOrNull(FixedPoint.latitudeMicros(packed)))
+        .longitude(FixedPoint.toDegreesOrNull(FixedPoint.longitudeMicros(packed)))
+        .build();
+    }
+
+    /**
+     * @see GeoGrid#withinRadius
+     */
+    public List<GeoGrid.Neighbour> withinRadius(double latitude, double longitude,
+      double radiusKm, int limit) {
+      return this.grid.withinRadius(latitude, longitude, radiusKm, limit);
+    }
+
+    /**
+     * @see GeoGrid#nearest
+     */
+    public List<GeoGrid.Neighbour> nearest(double latitude, double longitude, int k) {
+      return this.grid.nearest(latitude, longitude, k);
+    }
+
+    void setCoordinates(long key, long packed) {
+      int slot = this.store.binarySearch(key);
+      if (slot >= 0) {
+        this.grid.addToCell(slot, packed);
+        long previous = this.store.getAndSetCoordinates(slot, packed);
+        this.grid.removeFromCell(slot, previous);
+      }
+    }
+  }
+
+  private static final class SnapshotBuilder {
+
+    private long[] keys;
+    private long[] ids;
+    private long[] coordinates;
+    private int size;
+    private int skipped;
+
+    SnapshotBuilder(int capacity) {
+      this.keys = new long[Math.max(capacity, 16)];
+      this.ids = new long[this.keys.length];
+      this.coordinates = new long[this.keys.length];
+    }
+
+    void add(long id, long key, int latitudeMicros, int longitudeMicros) {
+      if (key == PostcodeKeys.INVALID) {
+        this.skipped++;
+        return;
+      }
+      if (this.size == this.keys.length) {
+        int capacity = this.size + (this.size >> 1);
+        this.keys = Arrays.copyOf(this.keys, capacity);
+        this.ids = Arrays.copyOf(this.ids, capacity);
+        this.coordinates = Arrays.copyOf(this.coordinates, capacity);
+      }
+      this.keys[this.size] = key;
+      this.ids[this.size] = id;
+      this.coordinates[this.size] = FixedPoint.pack(latitudeMicros, longitudeMicros);
+      this.size++;
+    }
+
+    Snapshot build(boolean offHeap) {
+      if (this.skipped > 0) {
+        log.warn("Skipped {} postcodes without a valid postcode key", this.skipped);
+      }
+
+      var sortedKeys = Arrays.copyOf(this.keys, this.size);
+      var sortedIds = Arrays.copyOf(this.ids, this.size);
+      var sortedCoordinates = Arrays.copyOf(this.coordinates, this.size);
+
+      if (!isStrictlyAscending(sortedKeys)) {
+        // the database collation did not match key order, so sort the columns ourselves
+        int[] order = IntStream.range(0, this.size).boxed()
+          .sorted(Comparator.comparingLong(i -> this.keys[i]))
+          .mapToInt(Integer::intValue)
+          .toArray();
+        for (int i = 0; i < order.length; i++) {
+          sortedKeys[i] = this.keys[order[i]];
+          sortedIds[i] = this.ids[order[i]];
+          sortedCoordinates[i] = this.coordinates[order[i]];
+        }
+      }
+      return new Snapshot(offHeap
+        ? OffHeapSlotStore.copyOf(sortedKeys, sortedIds, sortedCoordinates)
+        : new HeapSlotStore(sortedKeys, sortedIds, sortedCoordinates));
+    }
+
+    private static boolean isStrictlyAscending(long[] values) {
+      for (int i = 1; i < values.length; i++) {
+        if (values[i - 1] >= values[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
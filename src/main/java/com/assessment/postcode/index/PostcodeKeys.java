@@ -0,0 +1,193 @@
+package com.assessment.postcode.index;
+
+/**
+ * Packs postcodes of up to eight ASCII characters into a {@code long}, left aligned and zero
+ * padded, so that the natural ordering of the packed keys matches the ordering of the strings.
+ *
+ * <p>{@link #key} canonicalises a postcode before packing it: case and whitespace are ignored and
+ * a single space is put before the three character inward code, so {@code "ab101xg"},
+ * {@code "AB10 1XG"} and {@code "AB101XG"} share one key. With that space in place, every postcode
+ * of an outcode or sector is a contiguous key {@link Range}.
+ */
+public final class PostcodeKeys {
+
+  public static final long INVALID = -1L;
+
+  static final int MAX_LENGTH = Long.BYTES;
+
+  private static final int INWARD_LENGTH = 3;
+  private static final int MIN_OUTWARD_LENGTH = 2;
+  private static final int MAX_OUTWARD_LENGTH = 4;
+
+  /**
+   * Inclusive range of packed keys.
+   */
+  public record Range(long from, long to) {
+  }
+
+  private PostcodeKeys() {
+  }
+
+  public static long pack(String postcode) {
+    if (postcode == null) {
+      return INVALID;
+    }
+    int length = postcode.length();
+    if (length == 0 || length > MAX_LENGTH) {
+      return INVALID;
+    }
+
+    long key = 0;
+    for (int i = 0; i < MAX_LENGTH; i++) {
+      key <<= 8;
+      if (i < length) {
+        char c = postcode.charAt(i);
+        if (c == 0 || c > 0x7F) {
+          return INVALID;
+        }
+        key |= c;
+      }
+    }
+    return key;
+  }
+
+  /**
+   * Canonicalises and packs a postcode without allocating.
+   *
+   * @return the key of the canonical postcode, or {@link #INVALID} unless the postcode is a two to
+   *   four character outward code starting with a letter followed by a digit-letter-letter inward
+   *   code
+   */
+  public static long key(String postcode) {
+    if (postcode == null) {
+      return INVALID;
+    }
+
+    // letters and digits right aligned in arrival order, at most seven of them
+    long chars = 0;
+    int count = 0;
+    for (int i = 0; i < postcode.length(); i++) {
+      int c = alphanumeric(postcode.charAt(i));
+      if (c == 0) {
+        continue;
+      }
+      if (c < 0 || ++count > MAX_OUTWARD_LENGTH + INWARD_LENGTH) {
+        return INVALID;
+      }
+      chars = chars << 8 | c;
+    }
+
+    int outwardLength = count - INWARD_LENGTH;
+    if (outwardLength < MIN_OUTWARD_LENGTH
+      || !isLetter(byteAt(chars, count - 1))
+      || !isDigit(byteAt(chars, INWARD_LENGTH - 1))
+      || !isLetter(byteAt(chars, 1))
+      || !isLetter(byteAt(chars, 0))) {
+      return INVALID;
+    }
+
+    long outward = chars >>> (INWARD_LENGTH * 8);
+    long inward = chars & 0xFFFFFFL;
+    long key = outward << ((INWARD_LENGTH + 1) * 8) | (long) ' ' << (INWARD_LENGTH * 8) | inward;
+    return key << ((MAX_LENGTH - outwardLength - 1 - INWARD_LENGTH) * 8);
+  }
+
+  /**
+   * @return the canonical form of the postcode, e.g. {@code "AB10 1XG"}, or {@code null} when it
+   *   is not a valid postcode
+   * @see #key
+   */
+  public static String canonicalize(String postcode) {
+    long key = key(postcode);
+    return key == INVALID ? null : unpack(key);
+  }
+
+  /**
+   * @return the keys of every postcode in an outcode such as {@code "AB10"}, or {@code null} when
+   *   it is not two to four letters and digits starting with a letter
+   */
+  public static Range outcodeRange(String outcode) {
+    String outward = stripAndUpperCase(outcode, MAX_OUTWARD_LENGTH);
+    if (outward == null || outward.length() < MIN_OUTWARD_LENGTH
+      || !isLetter(outward.charAt(0))) {
+      return null;
+    }
+    return range(outward + ' ');
+  }
+
+  /**
+   * @return the keys of every postcode in a sector such as {@code "AB10 1"} or {@code "AB101"},
+   *   whose last digit is the sector, or {@code null} when it is not a valid sector
+   */
+  public static Range sectorRange(String sector) {
+    String chars = stripAndUpperCase(sector, MAX_OUTWARD_LENGTH + 1);
+    if (chars == null || chars.length() < MIN_OUTWARD_LENGTH + 1 || !isLetter(chars.charAt(0))
+      || !isDigit(chars.charAt(chars.length() - 1))) {
+      return null;
+    }
+    int split = chars.length() - 1;
+    return range(chars.substring(0, split) + ' ' + chars.charAt(split));
+  }
+
+  private static Range range(String prefix) {
+    long from = pack(prefix);
+    return new Range(from, from | (1L << ((MAX_LENGTH - prefix.length()) * 8)) - 1);
+  }
+
+  private static String stripAndUpperCase(String value, int maxLength) {
+    if (value == null) {
+      return null;
+    }
+    var chars = new char[maxLength];
+    int length = 0;
+    for (int i = 0; i < value.length(); i++) {
+      int c = alphanumeric(value.charAt(i));
+      if (c == 0) {
+        continue;
+      }
+      if (c < 0 || length == maxLength) {
+        return null;
+      }
+      chars[length++] = (char) c;
+    }
+    return new String(chars, 0, length);
+  }
+
+  /**
+   * @return the upper case letter or digit, {@code 0} for whitespace, or {@code -1} otherwise
+   */
+  private static int alphanumeric(char c) {
+    if (c >= 'a' && c <= 'z') {
+      return c - ('a' - 'A');
+    }
+    if (c >= 'A' && c <= 'Z' || c >= '0' && c <= '9') {
+      return c;
+    }
+    return Character.isWhitespace(c) ? 0 : -1;
+  }
+
+  private static int byteAt(long chars, int index) {
+    return (int) (chars >>> (index * 8)) & 0xFF;
+  }
+
+  private static boolean isLetter(int c) {
+    return c >= 'A' && c <= 'Z';
+  }
+
+  private static boolean isDigit(int c) {
+    return c >= '0' && c <= '9';
+  }
+
+  public static String unpack(long key) {
+    var chars = new char[MAX_LENGTH];
+    int length = 0;
+    for (int shift = (MAX_LENGTH - 1) * 8; shift >= 0; shift -= 8) {
+      char c = (char) ((key >>> shift) & 0xFF);
+      if (c == 0) {
+        break;
+      }
+      chars[length++] = c;
+    }
+    return new String(chars, 0, length);
+  }
+}
@@ -0,0 +1,47 @@
+package com.assessment.postcode.index;
+
+/**
+ * Column storage behind a {@link PostcodeIndex.Snapshot}: postcode keys in ascending order, the
+ * row id and the packed {@link FixedPoint} coordinates of each slot. Keys and ids never change
+ * once stored; coordinates are read and replaced atomically so updates can be applied while
+ * queries run.
+ *
+ * @see HeapSlotStore
+ * @see OffHeapSlotStore
+ */
+public interface SlotStore {
+
+  int size();
+
+  long key(int slot);
+
+  long id(int slot);
+
+  long coordinates(int slot);
+
+  /**
+   * @return the previous coordinates of the slot
+   */
+  long getAndSetCoordinates(int slot, long packed);
+
+  /**
+   * @return the slot of the key, or {@code -(insertion point) - 1} as for
+   *   {@link java.util.Arrays#binarySearch(long[], long)}
+   */
+  default int binarySearch(long key) {
+    int low = 0;
+    int high = this.size() - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      long midKey = this.key(mid);
+      if (midKey < key) {
+        low = mid + 1;
+      } else if (midKey > key) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+}
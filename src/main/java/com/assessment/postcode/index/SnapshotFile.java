@@ -0,0 +1,153 @@
+package com.assessment.postcode.index;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary copy of a {@link PostcodeIndex.Snapshot}, read back through a memory mapping so the
+ * index can be restored without querying the table. The file is a 32-byte header followed by the
+ * sorted postcode keys, the ids and the packed {@link FixedPoint} coordinates, {@code count} longs
+ * each, all little-endian:
+ * <pre>
+ *   int  magic            "PCIX"
+ *   int  version          {@link #VERSION}
+ *   long count
+ *   long sourceChecksum   CRC32C of the CSV file the table was imported from
+ *   long payloadChecksum  CRC32C of everything after the header
+ * </pre>
+ */
+public final class SnapshotFile {
+
+  public static final int VERSION = 1;
+
+  private static final int MAGIC = 0x58494350;
+  private static final int HEADER_BYTES = 32;
+
+  private SnapshotFile() {
+  }
+
+  public record Header(int version, long count, long sourceChecksum, long payloadChecksum) {
+
+    public boolean isCurrentVersion() {
+      return this.version == VERSION;
+    }
+  }
+
+  /**
+   * Writes the snapshot to a temporary file next to {@code path} and moves it into place, so a
+   * reader never sees a partly written file.
+   */
+  public static void write(Path path, PostcodeIndex.Snapshot snapshot, long sourceChecksum)
+    throws IOException {
+    int count = snapshot.size();
+    var directory = path.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+    var temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+
+    try {
+      try (var channel = FileChannel.open(temp, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+        var mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + 24L * count);
+        var buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+        var payload = buffer.slice(HEADER_BYTES, buffer.capacity() - HEADER_BYTES)
+          .order(ByteOrder.LITTLE_ENDIAN);
+        for (int slot = 0; slot < count; slot++) {
+          payload.putLong(snapshot.key(slot));
+        }
+        for (int slot = 0; slot < count; slot++) {
+          payload.putLong(snapshot.id(slot));
+        }
+        for (int slot = 0; slot < count; slot++) {
+          payload.putLong(snapshot.coordinates(slot));
+        }
+
+        buffer.putInt(0, MAGIC)
+          .putInt(4, VERSION)
+          .putLong(8, count)
+          .putLong(16, sourceChecksum)
+          .putLong(24, checksum(payload.flip()));
+        mapped.force();
+      }
+      Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * @return the header, or {@code null} when the file is missing or is not a snapshot file
+   */
+  public static Header readHeader(Path path) throws IOException {
+    if (!Files.isRegularFile(path) || Files.size(path) < HEADER_BYTES) {
+      return null;
+    }
+    try (var in = Files.newInputStream(path)) {
+      return header(ByteBuffer.wrap(in.readNBytes(HEADER_BYTES)).order(ByteOrder.LITTLE_ENDIAN));
+    }
+  }
+
+  /**
+   * Maps the file and copies it into a new snapshot. With {@code offHeap}, the keys and ids are
+   * served straight from the mapping, which stays valid after the file is closed, and only the
+   * coordinates are copied.
+   *
+   * @throws IOException when the file is missing, of another version, truncated or corrupt
+   */
+  public static PostcodeIndex.Snapshot read(Path path, boolean offHeap) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+        .order(ByteOrder.LITTLE_ENDIAN);
+
+      var header = buffer.capacity() < HEADER_BYTES ? null : header(buffer);
+      if (header == null || !header.isCurrentVersion()) {
+        throw new IOException(path + " is not a version " + VERSION + " snapshot file");
+      }
+      if (buffer.capacity() != HEADER_BYTES + 24 * header.count()) {
+        throw new IOException(path + " is truncated");
+      }
+
+      var payload = buffer.slice(HEADER_BYTES, buffer.capacity() - HEADER_BYTES)
+        .order(ByteOrder.LITTLE_ENDIAN);
+      if (checksum(payload.duplicate()) != header.payloadChecksum()) {
+        throw new IOException(path + " failed its checksum");
+      }
+
+      int count = (int) header.count();
+      if (offHeap) {
+        int columnBytes = count * Long.BYTES;
+        return new PostcodeIndex.Snapshot(new OffHeapSlotStore(payload.slice(0, columnBytes),
+          payload.slice(columnBytes, columnBytes), payload.slice(2 * columnBytes, columnBytes)));
+      }
+
+      var longs = payload.asLongBuffer();
+      long[] keys = new long[count];
+      long[] ids = new long[count];
+      long[] coordinates = new long[count];
+      longs.get(keys).get(ids).get(coordinates);
+      return new PostcodeIndex.Snapshot(new HeapSlotStore(keys, ids, coordinates));
+    }
+  }
+
+  private static Header header(ByteBuffer buffer) {
+    if (buffer.getInt(0) != MAGIC) {
+      return null;
+    }
+    return new Header(buffer.getInt(4), buffer.getLong(8), buffer.getLong(16),
+      buffer.getLong(24));
+  }
+
+  private static long checksum(ByteBuffer buffer) {
+    var crc = new CRC32C();
+    crc.update(buffer);
+    return crc.getValue();
+  }
+}
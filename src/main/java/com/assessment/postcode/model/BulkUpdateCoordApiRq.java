@@ -0,0 +1,17 @@
+package com.assessment.postcode.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateCoordApiRq {
+
+  private List<PostcodeCoordinatesRq> updates;
+}
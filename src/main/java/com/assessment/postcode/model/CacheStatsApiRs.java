@@ -0,0 +1,23 @@
+package com.assessment.postcode.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsApiRs {
+
+  private long size;
+
+  private long hitCount;
+
+  private long missCount;
+
+  private double hitRate;
+
+  private long evictionCount;
+}
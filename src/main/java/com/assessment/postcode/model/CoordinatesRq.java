@@ -0,0 +1,17 @@
+package com.assessment.postcode.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoordinatesRq {
+
+  private Double latitude;
+
+  private Double longitude;
+}
@@ -5,8 +5,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @Builder
 @NoArgsConstructor
@@ -15,5 +13,5 @@ public class DistanceApiRs {
 
   private String unit;
 
-  private BigDecimal value;
+  private double value;
 }
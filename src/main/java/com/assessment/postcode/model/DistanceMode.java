@@ -0,0 +1,31 @@
+package com.assessment.postcode.model;
+
+import java.util.Locale;
+
+/**
+ * How the distance endpoints compute distances: {@code exact} with the haversine formula, or
+ * {@code fast} with the equirectangular approximation, whose error across the UK is bounded by
+ * {@code GeoDistance.EQUIRECTANGULAR_MAX_RELATIVE_ERROR}.
+ */
+public enum DistanceMode {
+
+  EXACT,
+  FAST;
+
+  /**
+   * @return the mode named {@code exact} or {@code fast} in any case, or {@code null} for any
+   *   other name
+   */
+  public static DistanceMode of(String mode) {
+    for (DistanceMode value : values()) {
+      if (value.name().equalsIgnoreCase(mode)) {
+        return value;
+      }
+    }
+    return null;
+  }
+
+  public String getValue() {
+    return this.name().toLowerCase(Locale.ROOT);
+  }
+}
@@ -17,4 +17,7 @@ public class GetDistanceApiRs {
   private UkPostcodeDto postcode2;
 
   private DistanceApiRs distance;
+
+  // exact or fast, see DistanceMode
+  private String mode;
 }
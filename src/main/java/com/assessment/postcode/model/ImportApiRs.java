@@ -0,0 +1,39 @@
+package com.assessment.postcode.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportApiRs {
+
+  private long executionId;
+
+  private String jobName;
+
+  private String csvPath;
+
+  private String status;
+
+  private String exitCode;
+
+  private LocalDateTime startTime;
+
+  private LocalDateTime endTime;
+
+  // rows changed by the delta, once it has been applied
+  private Integer deleted;
+
+  private Integer updated;
+
+  private Integer inserted;
+
+  private List<ImportStepApiRs> steps;
+}
@@ -0,0 +1,23 @@
+package com.assessment.postcode.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportStepApiRs {
+
+  private String name;
+
+  private String status;
+
+  private long readCount;
+
+  private long writeCount;
+
+  private long filterCount;
+}
@@ -0,0 +1,21 @@
+package com.assessment.postcode.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LookupStatsApiRs {
+
+  private long loads;
+
+  private long coalesced;
+
+  private long batched;
+
+  private long queries;
+}
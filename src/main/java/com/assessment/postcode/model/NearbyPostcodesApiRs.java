@@ -0,0 +1,21 @@
+package com.assessment.postcode.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyPostcodesApiRs {
+
+  private double latitude;
+
+  private double longitude;
+
+  private List<PostcodeDistanceRs> postcodes;
+}
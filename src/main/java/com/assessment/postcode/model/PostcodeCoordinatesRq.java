@@ -0,0 +1,19 @@
+package com.assessment.postcode.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostcodeCoordinatesRq {
+
+  private String postcode;
+
+  private Double latitude;
+
+  private Double longitude;
+}
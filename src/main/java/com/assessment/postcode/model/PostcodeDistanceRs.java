@@ -0,0 +1,18 @@
+package com.assessment.postcode.model;
+
+import com.assessment.postcode.dto.UkPostcodeDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostcodeDistanceRs {
+
+  private UkPostcodeDto postcode;
+
+  private DistanceApiRs distance;
+}
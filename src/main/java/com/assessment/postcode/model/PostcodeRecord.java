@@ -2,8 +2,9 @@ package com.assessment.postcode.model;
 
 import lombok.Builder;
 
-import java.math.BigDecimal;
-
+/**
+ * One import row. Missing coordinates are {@link Double#NaN}.
+ */
 @Builder
-public record PostcodeRecord(long id, String postcode, BigDecimal latitude, BigDecimal longitude) {
+public record PostcodeRecord(long id, String postcode, double latitude, double longitude) {
 }
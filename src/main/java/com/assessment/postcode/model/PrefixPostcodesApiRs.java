@@ -0,0 +1,20 @@
+package com.assessment.postcode.model;
+
+import com.assessment.postcode.dto.UkPostcodeDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrefixPostcodesApiRs {
+
+  private String prefix;
+
+  private List<UkPostcodeDto> postcodes;
+}
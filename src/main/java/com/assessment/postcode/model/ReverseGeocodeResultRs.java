@@ -0,0 +1,27 @@
+package com.assessment.postcode.model;
+
+import com.assessment.postcode.dto.UkPostcodeDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReverseGeocodeResultRs {
+
+  private Double latitude;
+
+  private Double longitude;
+
+  private boolean found;
+
+  private UkPostcodeDto postcode;
+
+  private DistanceApiRs distance;
+
+  // why the point was not resolved, e.g. it is outside UK bounds
+  private String reason;
+}
@@ -5,15 +5,13 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class UpdateCoordApiRq {
 
-  private BigDecimal latitude;
+  private Double latitude;
 
-  private BigDecimal longitude;
+  private Double longitude;
 }
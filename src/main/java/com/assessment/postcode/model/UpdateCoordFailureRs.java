@@ -0,0 +1,20 @@
+package com.assessment.postcode.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateCoordFailureRs {
+
+  // position of the row in the request
+  private int index;
+
+  private String postcode;
+
+  private String reason;
+}
@@ -0,0 +1,20 @@
+package com.assessment.postcode.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ZoneApiRs {
+
+  private String id;
+
+  private String name;
+
+  // postcodes assigned to the zone by the last zone assignment run, null before the first one
+  private Long postcodes;
+}
@@ -0,0 +1,7 @@
+package com.assessment.postcode.model;
+
+/**
+ * The zone a postcode falls in, as precomputed by {@code zoneAssignmentJob}.
+ */
+public record ZoneAssignment(long postcodeKey, String zoneId) {
+}
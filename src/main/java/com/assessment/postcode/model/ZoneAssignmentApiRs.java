@@ -0,0 +1,34 @@
+package com.assessment.postcode.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ZoneAssignmentApiRs {
+
+  private long executionId;
+
+  private String status;
+
+  private String exitCode;
+
+  private LocalDateTime startTime;
+
+  private LocalDateTime endTime;
+
+  // postcodes with coordinates read so far
+  private long readCount;
+
+  // postcodes written to UK_POSTCODE_ZONE
+  private long assignedCount;
+
+  // postcodes in no zone
+  private long unassignedCount;
+}
@@ -0,0 +1,26 @@
+package com.assessment.postcode.model;
+
+import com.assessment.postcode.dto.UkPostcodeDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ZoneClassificationApiRs {
+
+  // the postcode that was classified, null when a latitude and longitude were given
+  private UkPostcodeDto postcode;
+
+  private Double latitude;
+
+  private Double longitude;
+
+  // null when the point is in no zone
+  private String zoneId;
+
+  private String zoneName;
+}
@@ -0,0 +1,7 @@
+package com.assessment.postcode.model;
+
+/**
+ * A stored postcode key with its coordinates, as read for zone classification.
+ */
+public record ZonePoint(long postcodeKey, double latitude, double longitude) {
+}
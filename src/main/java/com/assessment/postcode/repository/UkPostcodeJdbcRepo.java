@@ -0,0 +1,27 @@
+package com.assessment.postcode.repository;
+
+import java.util.List;
+
+/**
+ * Writes to {@code UK_POSTCODE} done with plain JDBC statements and batches, avoiding the select
+ * and merge JPA performs for every saved entity.
+ */
+public interface UkPostcodeJdbcRepo {
+
+  record CoordinatesUpdate(long postcodeKey, double latitude, double longitude) {
+  }
+
+  /**
+   * Applies one update with a single {@code UPDATE ... WHERE POSTCODE_KEY = ?}.
+   *
+   * @return {@code 1}, or {@code 0} when the postcode does not exist
+   */
+  int updateCoordinates(CoordinatesUpdate update);
+
+  /**
+   * Applies the updates as one JDBC batch in one transaction.
+   *
+   * @return the number of rows updated for each entry, {@code 0} when its postcode does not exist
+   */
+  int[] updateCoordinates(List<CoordinatesUpdate> updates);
+}
@@ -0,0 +1,47 @@
+package com.assessment.postcode.repository;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+public class UkPostcodeJdbcRepoImpl implements UkPostcodeJdbcRepo {
+
+  private static final String UPDATE_COORDINATES =
+    "UPDATE UK_POSTCODE SET LATITUDE = ?, LONGITUDE = ? WHERE POSTCODE_KEY = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public UkPostcodeJdbcRepoImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public int updateCoordinates(CoordinatesUpdate update) {
+    return this.jdbcTemplate.update(UPDATE_COORDINATES, update.latitude(), update.longitude(),
+      update.postcodeKey());
+  }
+
+  @Override
+  @Transactional
+  public int[] updateCoordinates(List<CoordinatesUpdate> updates) {
+    return this.jdbcTemplate.batchUpdate(UPDATE_COORDINATES, new BatchPreparedStatementSetter() {
+
+      @Override
+      public void setValues(PreparedStatement ps, int i) throws SQLException {
+        var update = updates.get(i);
+        ps.setDouble(1, update.latitude());
+        ps.setDouble(2, update.longitude());
+        ps.setLong(3, update.postcodeKey());
+      }
+
+      @Override
+      public int getBatchSize() {
+        return updates.size();
+      }
+    });
+  }
+}
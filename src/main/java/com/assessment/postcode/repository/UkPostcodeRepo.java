@@ -1,12 +1,33 @@
 package com.assessment.postcode.repository;
 
 
+import com.assessment.postcode.dto.UkPostcodeDto;
 import com.assessment.postcode.entity.UkPostcode;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface UkPostcodeRepo extends JpaRepository<UkPostcode, String> {
+/**
+ * Reads select straight into {@link UkPostcodeDto} with a constructor expression, so no entity is
+ * loaded into the persistence context and only the four columns of the DTO are fetched.
+ */
+public interface UkPostcodeRepo extends JpaRepository<UkPostcode, Long>, UkPostcodeJdbcRepo {
 
-  Optional<UkPostcode> findByPostcode(String postcode);
+  String SELECT_DTO = "SELECT new com.assessment.postcode.dto.UkPostcodeDto("
+    + "p.id, p.postcode, p.latitude, p.longitude) FROM UkPostcode p ";
+
+  @Query(SELECT_DTO + "WHERE p.postcodeKey = :postcodeKey")
+  Optional<UkPostcodeDto> findByPostcodeKey(@Param("postcodeKey") long postcodeKey);
+
+  @Query(SELECT_DTO + "WHERE p.postcodeKey IN :postcodeKeys")
+  List<UkPostcodeDto> findByPostcodeKeyIn(@Param("postcodeKeys") Collection<Long> postcodeKeys);
+
+  @Query(SELECT_DTO + "WHERE p.postcodeKey BETWEEN :from AND :to ORDER BY p.postcodeKey")
+  List<UkPostcodeDto> findByPostcodeKeyBetweenOrderByPostcodeKey(@Param("from") long from,
+    @Param("to") long to, Limit limit);
 }
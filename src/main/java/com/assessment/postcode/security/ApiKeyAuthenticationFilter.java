@@ -0,0 +1,47 @@
+package com.assessment.postcode.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates requests carrying an {@value #HEADER} header. A request with an unknown key is
+ * rejected with 401 straight away; a request without the header carries on unauthenticated and
+ * is rejected by authorization.
+ */
+public class ApiKeyAuthenticationFilter extends OncePerRequestFilter {
+
+  public static final String HEADER = "X-API-Key";
+
+  private final ApiKeyVerifier apiKeyVerifier;
+  private final SecurityContextHolderStrategy securityContextHolderStrategy =
+    SecurityContextHolder.getContextHolderStrategy();
+
+  public ApiKeyAuthenticationFilter(ApiKeyVerifier apiKeyVerifier) {
+    this.apiKeyVerifier = apiKeyVerifier;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+    FilterChain filterChain) throws ServletException, IOException {
+
+    String apiKey = request.getHeader(HEADER);
+    if (apiKey != null) {
+      var authentication = this.apiKeyVerifier.verify(apiKey);
+      if (authentication == null) {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        return;
+      }
+      var context = this.securityContextHolderStrategy.createEmptyContext();
+      context.setAuthentication(authentication);
+      this.securityContextHolderStrategy.setContext(context);
+    }
+    filterChain.doFilter(request, response);
+  }
+}
@@ -0,0 +1,81 @@
+package com.assessment.postcode.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Verifies API keys against the SHA-256 digests configured in {@code postcode.security.api-keys},
+ * so the keys themselves never appear in configuration. Accepted keys are remembered for
+ * {@code postcode.security.api-key-cache.expire-after-write}, which spares repeat callers the
+ * hashing; rejected keys are not cached.
+ */
+@Component
+public class ApiKeyVerifier {
+
+  private final byte[][] digests;
+  private final Cache<String, Authentication> verified;
+
+  public ApiKeyVerifier(@Value("${postcode.security.api-keys:}") String[] digests,
+    @Value("${postcode.security.api-key-cache.maximum-size:10000}") long maximumSize,
+    @Value("${postcode.security.api-key-cache.expire-after-write:5m}") Duration expireAfterWrite) {
+    this.digests = Arrays.stream(digests)
+      .map(String::trim)
+      .filter(d -> !d.isEmpty())
+      .map(d -> HexFormat.of().parseHex(d.toLowerCase(Locale.ROOT)))
+      .toArray(byte[][]::new);
+    this.verified = Caffeine.newBuilder()
+      .maximumSize(maximumSize)
+      .expireAfterWrite(expireAfterWrite)
+      .build();
+  }
+
+  /**
+   * @return whether at least one API key digest is configured
+   */
+  public boolean hasKeys() {
+    return this.digests.length > 0;
+  }
+
+  /**
+   * @return the authentication for the key, or {@code null} when it is not accepted
+   */
+  public Authentication verify(String apiKey) {
+    var cached = this.verified.getIfPresent(apiKey);
+    if (cached != null) {
+      return cached;
+    }
+
+    byte[] digest = sha256(apiKey);
+    for (byte[] accepted : this.digests) {
+      if (MessageDigest.isEqual(accepted, digest)) {
+        var authentication = new PreAuthenticatedAuthenticationToken(
+          "api-key:" + HexFormat.of().formatHex(accepted, 0, 4), null,
+          AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+        this.verified.put(apiKey, authentication);
+        return authentication;
+      }
+    }
+    return null;
+  }
+
+  private static byte[] sha256(String value) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -0,0 +1,274 @@
+package com.assessment.postcode.service;
+
+import com.assessment.postcode.dto.UkPostcodeDto;
+import com.assessment.postcode.index.PostcodeKeys;
+import com.assessment.postcode.repository.UkPostcodeRepo;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Loads postcodes from the database for lookups that miss the index and the cache, sharing work
+ * between concurrent callers:
+ * <ul>
+ *   <li>single flight: a caller whose postcode is already being loaded waits for that load
+ *   instead of starting its own. In-flight loads are kept in a {@link ConcurrentHashMap}, so
+ *   callers for different postcodes never wait on each other;</li>
+ *   <li>micro-batching: the first caller to need a query opens a batch that other postcodes join
+ *   while earlier queries are running, and loads them all with one {@code IN} query once those
+ *   queries finish, the batch holds {@code postcode.lookup.batch-max-size} postcodes or
+ *   {@code postcode.lookup.batch-window} has passed, whichever is first. A lookup with no query
+ *   running is not delayed, so batches only form under load. Joining a batch is a
+ *   compare-and-set, not a lock. A window of {@code 0} queries every postcode on its own.</li>
+ * </ul>
+ * Every caller gets its own copy of the result, because {@link UkPostcodeDto} is mutable.
+ */
+@Component
+public class CoalescingPostcodeLoader implements MeterBinder {
+
+  private final UkPostcodeRepo ukPostcodeRepo;
+  private final long batchWindowNanos;
+  private final int batchMaxSize;
+
+  private final ConcurrentHashMap<Long, CompletableFuture<Optional<UkPostcodeDto>>> inFlight =
+    new ConcurrentHashMap<>();
+  private final AtomicReference<Batch> openBatch = new AtomicReference<>();
+  private final AtomicInteger runningQueries = new AtomicInteger();
+
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+  private final LongAdder batched = new LongAdder();
+  private final LongAdder queries = new LongAdder();
+
+  public record Stats(long loads, long coalesced, long batched, long queries) {
+  }
+
+  private record Pending(long key, CompletableFuture<Optional<UkPostcodeDto>> result) {
+  }
+
+  public CoalescingPostcodeLoader(UkPostcodeRepo ukPostcodeRepo,
+    @Value("${postcode.lookup.batch-window:0}") Duration batchWindow,
+    @Value("${postcode.lookup.batch-max-size:64}") int batchMaxSize) {
+    if (batchMaxSize < 1) {
+      throw new IllegalArgumentException("postcode.lookup.batch-max-size must be at least 1");
+    }
+    this.ukPostcodeRepo = ukPostcodeRepo;
+    this.batchWindowNanos = batchWindow.toNanos();
+    this.batchMaxSize = batchMaxSize;
+  }
+
+  /**
+   * @param key a packed postcode key, see {@link PostcodeKeys}
+   */
+  public Optional<UkPostcodeDto> load(long key) {
+    this.loads.increment();
+
+    var result = new CompletableFuture<Optional<UkPostcodeDto>>();
+    var existing = this.inFlight.putIfAbsent(key, result);
+    if (existing != null) {
+      this.coalesced.increment();
+      return join(existing).map(CoalescingPostcodeLoader::copy);
+    }
+
+    try {
+      if (this.batchWindowNanos <= 0) {
+        this.query(List.of(new Pending(key, result)));
+      } else {
+        this.enqueue(new Pending(key, result));
+      }
+      return join(result).map(CoalescingPostcodeLoader::copy);
+    } finally {
+      this.inFlight.remove(key, result);
+    }
+  }
+
+  public Stats stats() {
+    return new Stats(this.loads.sum(), this.coalesced.sum(), this.batched.sum(),
+      this.queries.sum());
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("postcode.lookup.loads", this.loads, LongAdder::sum)
+      .description("Postcode lookups that reached the database loader")
+      .register(registry);
+    FunctionCounter.builder("postcode.lookup.coalesced", this.coalesced, LongAdder::sum)
+      .description("Postcode lookups that waited for an in-flight load of the same postcode")
+      .register(registry);
+    FunctionCounter.builder("postcode.lookup.batched", this.batched, LongAdder::sum)
+      .description("Postcode lookups loaded by an IN query shared with other postcodes")
+      .register(registry);
+    FunctionCounter.builder("postcode.lookup.queries", this.queries, LongAdder::sum)
+      .description("Database queries issued by the postcode loader")
+      .register(registry);
+  }
+
+  private void enqueue(Pending pending) {
+    while (true) {
+      var batch = this.openBatch.get();
+      if (batch == null) {
+        var opened = new Batch(Thread.currentThread(), pending);
+        if (this.openBatch.compareAndSet(null, opened)) {
+          this.lead(opened);
+          return;
+        }
+      } else if (batch.join(pending)) {
+        return;
+      } else {
+        // full or already closing, so the next caller opens a new one
+        this.openBatch.compareAndSet(batch, null);
+      }
+    }
+  }
+
+  /**
+   * Gathers members while other queries run, then closes the batch and runs its query on the
+   * caller's thread. The other members wait on their futures. An interrupt stops the gathering
+   * early; the query still runs for the members, and the interrupt is restored after it.
+   */
+  private void lead(Batch batch) {
+    long deadline = System.nanoTime() + this.batchWindowNanos;
+    long remaining;
+    boolean interrupted = false;
+    while (this.runningQueries.get() > 0 && !batch.isFull()
+      && (remaining = deadline - System.nanoTime()) > 0) {
+      // parkNanos returns at once while the flag is set, which would spin until the deadline
+      if (Thread.interrupted()) {
+        interrupted = true;
+        break;
+      }
+      LockSupport.parkNanos(this, remaining);
+    }
+    this.openBatch.compareAndSet(batch, null);
+    try {
+      this.query(batch.close());
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void query(List<Pending> pending) {
+    this.queries.increment();
+    this.runningQueries.incrementAndGet();
+    try {
+      if (pending.size() == 1) {
+        var only = pending.get(0);
+        only.result().complete(this.ukPostcodeRepo.findByPostcodeKey(only.key()));
+        return;
+      }
+
+      this.batched.add(pending.size());
+      var keys = new ArrayList<Long>(pending.size());
+      for (var each : pending) {
+        keys.add(each.key());
+      }
+      Map<Long, UkPostcodeDto> found = new HashMap<>();
+      for (var dto : this.ukPostcodeRepo.findByPostcodeKeyIn(keys)) {
+        found.put(PostcodeKeys.key(dto.getPostcode()), dto);
+      }
+      for (var each : pending) {
+        each.result().complete(Optional.ofNullable(found.get(each.key())));
+      }
+    } catch (RuntimeException | Error e) {
+      // the waiters rethrow it rather than waiting forever
+      for (var each : pending) {
+        each.result().completeExceptionally(e);
+      }
+    } finally {
+      this.runningQueries.decrementAndGet();
+      var waiting = this.openBatch.get();
+      if (waiting != null) {
+        LockSupport.unpark(waiting.leader);
+      }
+    }
+  }
+
+  private static Optional<UkPostcodeDto> join(
+    CompletableFuture<Optional<UkPostcodeDto>> result) {
+    try {
+      return result.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private static UkPostcodeDto copy(UkPostcodeDto dto) {
+    return new UkPostcodeDto(dto.getId(), dto.getPostcode(), dto.getLatitude(),
+      dto.getLongitude());
+  }
+
+  /**
+   * Postcodes gathered for one query. {@code reserved} counts the members, with
+   * {@link #CLOSED} set once the leader stops accepting more; {@code added} counts the members
+   * already in {@code members}, which the leader waits to match before reading it.
+   */
+  private final class Batch {
+
+    private static final int CLOSED = 1 << 30;
+
+    private final Thread leader;
+    private final ConcurrentLinkedQueue<Pending> members = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger reserved = new AtomicInteger(1);
+    private final AtomicInteger added = new AtomicInteger(1);
+
+    Batch(Thread leader, Pending first) {
+      this.leader = leader;
+      this.members.add(first);
+    }
+
+    boolean join(Pending pending) {
+      int count;
+      do {
+        count = this.reserved.get();
+        if (count >= CoalescingPostcodeLoader.this.batchMaxSize) {
+          return false;
+        }
+      } while (!this.reserved.compareAndSet(count, count + 1));
+
+      this.members.add(pending);
+      this.added.incrementAndGet();
+      if (count + 1 == CoalescingPostcodeLoader.this.batchMaxSize) {
+        LockSupport.unpark(this.leader);
+      }
+      return true;
+    }
+
+    boolean isFull() {
+      return this.reserved.get() >= CoalescingPostcodeLoader.this.batchMaxSize;
+    }
+
+    List<Pending> close() {
+      int count = this.reserved.getAndAdd(CLOSED);
+      // a member that reserved its place may not have added itself yet
+      while (this.added.get() < count) {
+        Thread.onSpinWait();
+      }
+      return new ArrayList<>(this.members);
+    }
+  }
+}
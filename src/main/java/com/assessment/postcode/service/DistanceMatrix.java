@@ -0,0 +1,103 @@
+package com.assessment.postcode.service;
+
+import com.assessment.postcode.model.DistanceMode;
+
+import java.util.List;
+
+/**
+ * Origins and destinations resolved to radians, with {@code cos(latitude)} precomputed once per
+ * point, so each cell of the matrix costs one haversine evaluation. In {@link DistanceMode#FAST}
+ * the points stay in degrees and each cell is an equirectangular approximation instead. Rows are
+ * computed on demand in blocks, which keeps memory bounded for large matrices.
+ */
+public class DistanceMatrix {
+
+  private final DistanceMode mode;
+  private final List<String> origins;
+  private final List<String> destinations;
+  private final double[] originLatitudes;
+  private final double[] originLongitudes;
+  private final double[] originCosLatitudes;
+  private final double[] destinationLatitudes;
+  private final double[] destinationLongitudes;
+  private final double[] destinationCosLatitudes;
+
+  public DistanceMatrix(DistanceMode mode, List<String> origins, double[] originLatitudes,
+    double[] originLongitudes, List<String> destinations, double[] destinationLatitudes,
+    double[] destinationLongitudes) {
+    this.mode = mode;
+    this.origins = origins;
+    this.destinations = destinations;
+    if (mode == DistanceMode.FAST) {
+      this.originLatitudes = originLatitudes;
+      this.originLongitudes = originLongitudes;
+      this.originCosLatitudes = null;
+      this.destinationLatitudes = destinationLatitudes;
+      this.destinationLongitudes = destinationLongitudes;
+      this.destinationCosLatitudes = null;
+      return;
+    }
+    this.originLatitudes = toRadians(originLatitudes);
+    this.originLongitudes = toRadians(originLongitudes);
+    this.originCosLatitudes = cos(this.originLatitudes);
+    this.destinationLatitudes = toRadians(destinationLatitudes);
+    this.destinationLongitudes = toRadians(destinationLongitudes);
+    this.destinationCosLatitudes = cos(this.destinationLatitudes);
+  }
+
+  public DistanceMode getMode() {
+    return this.mode;
+  }
+
+  public List<String> getOrigins() {
+    return this.origins;
+  }
+
+  public List<String> getDestinations() {
+    return this.destinations;
+  }
+
+  /**
+   * Computes rows {@code [from, from + rows.length)} into {@code rows}, each of which must hold
+   * one value per destination. Rows are computed on the calling thread, so concurrent matrices
+   * are bounded by the request threads rather than competing for the common pool.
+   */
+  public void computeRows(int from, double[][] rows) {
+    for (int i = 0; i < rows.length; i++) {
+      this.computeRow(from + i, rows[i]);
+    }
+  }
+
+  public void computeRow(int origin, double[] row) {
+    double lat = this.originLatitudes[origin];
+    double lon = this.originLongitudes[origin];
+    if (this.mode == DistanceMode.FAST) {
+      for (int j = 0; j < row.length; j++) {
+        row[j] = GeoDistance.equirectangularKm(lat, lon, this.destinationLatitudes[j],
+          this.destinationLongitudes[j]);
+      }
+      return;
+    }
+    double cosLat = this.originCosLatitudes[origin];
+    for (int j = 0; j < row.length; j++) {
+      row[j] = GeoDistance.haversineKm(lat, lon, cosLat, this.destinationLatitudes[j],
+        this.destinationLongitudes[j], this.destinationCosLatitudes[j]);
+    }
+  }
+
+  private static double[] toRadians(double[] degrees) {
+    var radians = new double[degrees.length];
+    for (int i = 0; i < degrees.length; i++) {
+      radians[i] = Math.toRadians(degrees[i]);
+    }
+    return radians;
+  }
+
+  private static double[] cos(double[] radians) {
+    var cos = new double[radians.length];
+    for (int i = 0; i < radians.length; i++) {
+      cos[i] = Math.cos(radians[i]);
+    }
+    return cos;
+  }
+}
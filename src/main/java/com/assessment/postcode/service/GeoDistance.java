@@ -0,0 +1,80 @@
+package com.assessment.postcode.service;
+
+/**
+ * Great-circle distance on a spherical earth using the haversine formula, and a faster
+ * equirectangular approximation of it for points within the UK.
+ */
+public final class GeoDistance {
+
+  public static final double EARTH_RADIUS = 6371; // radius in kilometers
+
+  /**
+   * Largest relative error of {@link #equirectangularKm} against {@link #haversineKm} for any two
+   * points between 49.8 and 60.9 degrees north and 8.7 west and 1.9 east. The error grows with
+   * distance: it stays below 0.004% (4 m) up to 100 km and 0.1% up to 500 km.
+   */
+  public static final double EQUIRECTANGULAR_MAX_RELATIVE_ERROR = 0.003;
+
+  private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS / 180;
+
+  // cos of every latitude from -90 to 90 degrees in COS_STEP steps, interpolated linearly, which
+  // is within 1e-7 of Math.cos; the extra entry lets 90 degrees interpolate too
+  private static final int COS_STEPS = 4096;
+  private static final double COS_STEP = 180.0 / COS_STEPS;
+  private static final double[] COS = new double[COS_STEPS + 2];
+
+  static {
+    for (int i = 0; i < COS.length; i++) {
+      COS[i] = Math.cos(Math.toRadians(-90 + i * COS_STEP));
+    }
+  }
+
+  private GeoDistance() {
+  }
+
+  public static double haversineKm(double latitude, double longitude, double latitude2,
+    double longitude2) {
+    // Using Haversine formula! See Wikipedia;
+    double lat1Radians = Math.toRadians(latitude);
+    double lat2Radians = Math.toRadians(latitude2);
+    return haversineKm(lat1Radians, Math.toRadians(longitude), Math.cos(lat1Radians),
+      lat2Radians, Math.toRadians(longitude2), Math.cos(lat2Radians));
+  }
+
+  /**
+   * Variant for callers that precompute radians and {@code cos(latitude)} per point, e.g. once per
+   * row or column of a distance matrix.
+   */
+  public static double haversineKm(double lat1Radians, double lon1Radians, double cosLat1,
+    double lat2Radians, double lon2Radians, double cosLat2) {
+    double a = haversine(lat1Radians, lat2Radians)
+      + cosLat1 * cosLat2 * haversine(lon1Radians, lon2Radians);
+    double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+    return (EARTH_RADIUS * c);
+  }
+
+  private static double haversine(double radians1, double radians2) {
+    double sin = Math.sin((radians1 - radians2) / 2.0);
+    return sin * sin;
+  }
+
+  /**
+   * Distance on the plane that projects longitudes by the cosine of the mean latitude, in degrees
+   * throughout and with the cosine read from a table, so it needs one square root and no
+   * trigonometry. Within {@link #EQUIRECTANGULAR_MAX_RELATIVE_ERROR} of the haversine distance
+   * across the UK; not for points on either side of the antimeridian or near the poles.
+   */
+  public static double equirectangularKm(double latitude, double longitude, double latitude2,
+    double longitude2) {
+    double x = (longitude2 - longitude) * cosDegrees((latitude + latitude2) * 0.5);
+    double y = latitude2 - latitude;
+    return KM_PER_DEGREE * Math.sqrt(x * x + y * y);
+  }
+
+  static double cosDegrees(double latitude) {
+    double position = (latitude + 90) * (1 / COS_STEP);
+    int i = (int) position;
+    return COS[i] + (COS[i + 1] - COS[i]) * (position - i);
+  }
+}
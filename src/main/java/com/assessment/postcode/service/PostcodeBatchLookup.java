@@ -0,0 +1,73 @@
+package com.assessment.postcode.service;
+
+import com.assessment.postcode.dto.UkPostcodeDto;
+import com.assessment.postcode.index.PostcodeIndex;
+import com.assessment.postcode.index.PostcodeKeys;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Postcodes of a batch lookup, resolved on demand in blocks: against one index snapshot when the
+ * index is loaded, otherwise with one {@code IN} query per block. Only the current block is held
+ * in memory, so the response can be streamed while later blocks are still unresolved.
+ */
+public class PostcodeBatchLookup {
+
+  private final List<String> postcodes;
+  private final PostcodeIndex.Snapshot snapshot;
+  private final Function<Collection<Long>, List<UkPostcodeDto>> loader;
+
+  /**
+   * @param snapshot index snapshot to resolve against, or {@code null} to use {@code loader}
+   * @param loader   loads the postcodes with the given {@link PostcodeKeys#key keys}
+   */
+  public PostcodeBatchLookup(List<String> postcodes, PostcodeIndex.Snapshot snapshot,
+    Function<Collection<Long>, List<UkPostcodeDto>> loader) {
+    this.postcodes = postcodes;
+    this.snapshot = snapshot;
+    this.loader = loader;
+  }
+
+  public List<String> getPostcodes() {
+    return this.postcodes;
+  }
+
+  /**
+   * Resolves postcodes {@code [from, from + results.length)} into {@code results}, leaving
+   * {@code null} for postcodes that are unknown or malformed.
+   */
+  public void resolve(int from, UkPostcodeDto[] results) {
+    if (this.snapshot != null) {
+      for (int i = 0; i < results.length; i++) {
+        int slot = this.snapshot.slotOf(this.postcodes.get(from + i));
+        results[i] = slot >= 0 ? this.snapshot.toDto(slot) : null;
+      }
+      return;
+    }
+
+    var keys = new long[results.length];
+    Set<Long> distinctKeys = new HashSet<>();
+    for (int i = 0; i < results.length; i++) {
+      keys[i] = PostcodeKeys.key(this.postcodes.get(from + i));
+      if (keys[i] != PostcodeKeys.INVALID) {
+        distinctKeys.add(keys[i]);
+      }
+    }
+
+    Map<Long, UkPostcodeDto> found = new HashMap<>();
+    if (!distinctKeys.isEmpty()) {
+      for (var dto : this.loader.apply(distinctKeys)) {
+        found.put(PostcodeKeys.key(dto.getPostcode()), dto);
+      }
+    }
+    for (int i = 0; i < results.length; i++) {
+      results[i] = found.get(keys[i]);
+    }
+  }
+}
@@ -0,0 +1,179 @@
+package com.assessment.postcode.service;
+
+import com.assessment.postcode.batch.PostcodeDeltaTasklet;
+import com.assessment.postcode.model.ImportApiRq;
+import com.assessment.postcode.model.ImportApiRs;
+import com.assessment.postcode.model.ImportStepApiRs;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Starts dataset reloads from the admin API and reports their progress from the job repository.
+ * A reload always runs {@code incrementalImportJob}: the file is loaded into the staging table
+ * while the live table and the index keep serving, and the difference is committed in one
+ * transaction before the index is rebuilt and swapped in. Jobs are launched on their own thread,
+ * so a request returns as soon as the execution has been created. A reload is refused while
+ * another import or a zone assignment is running.
+ *
+ * <p>The requested {@code csvPath} is resolved against {@code postcode.import.directory}, and a
+ * path that leaves that directory, directly or through a symbolic link, is rejected.
+ */
+@Service
+@Slf4j
+public class PostcodeImportService {
+
+  static final List<String> IMPORT_JOBS =
+    List.of("importJob", "partitionedImportJob", "incrementalImportJob");
+
+  private final JobExplorer jobExplorer;
+  private final Job incrementalImportJob;
+  private final Path importDirectory;
+  private final TaskExecutorJobLauncher jobLauncher;
+
+  public PostcodeImportService(JobRepository jobRepository, JobExplorer jobExplorer,
+    @Qualifier("incrementalImportJob") Job incrementalImportJob, Environment environment,
+    @Value("${postcode.import.directory:./imports}") String importDirectory)
+    throws Exception {
+    this.jobExplorer = jobExplorer;
+    this.incrementalImportJob = incrementalImportJob;
+    this.importDirectory = Path.of(importDirectory).toAbsolutePath().normalize();
+
+    this.jobLauncher = asyncJobLauncher(jobRepository, environment, "reload-");
+  }
+
+  /**
+   * @return a launcher whose {@code run} returns once the execution has been created, running
+   *   the job on a new thread, virtual when virtual threads are enabled
+   */
+  static TaskExecutorJobLauncher asyncJobLauncher(JobRepository jobRepository,
+    Environment environment, String threadNamePrefix) throws Exception {
+    var taskExecutor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+    taskExecutor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+    var jobLauncher = new TaskExecutorJobLauncher();
+    jobLauncher.setJobRepository(jobRepository);
+    jobLauncher.setTaskExecutor(taskExecutor);
+    jobLauncher.afterPropertiesSet();
+    return jobLauncher;
+  }
+
+  public synchronized ImportApiRs startImport(ImportApiRq apiRq) {
+    String csvPath = apiRq == null ? null : apiRq.getCsvPath();
+    if (csvPath == null || csvPath.isBlank()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "csvPath is required");
+    }
+    if (apiRq.getChunkSize() != null && apiRq.getChunkSize() < 1) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "chunkSize must be positive");
+    }
+    var csvFile = this.resolveInImportDirectory(csvPath);
+    for (String jobName : IMPORT_JOBS) {
+      if (!this.jobExplorer.findRunningJobExecutions(jobName).isEmpty()) {
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "An import is already running");
+      }
+    }
+    // the delta would change UK_POSTCODE under the zone job's ID ranges
+    if (!this.jobExplorer.findRunningJobExecutions(ZoneService.ZONE_ASSIGNMENT_JOB).isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "A zone assignment is running");
+    }
+
+    var jobParametersBuilder = new JobParametersBuilder()
+      .addLong("run.id", System.currentTimeMillis())
+      .addString("csvPath", csvFile.toString());
+    if (apiRq.getChunkSize() != null) {
+      jobParametersBuilder.addLong("chunkSize", apiRq.getChunkSize());
+    }
+
+    try {
+      log.info("RUNNING {} with csvPath={} from the admin API", this.incrementalImportJob.getName(),
+        csvPath);
+      return toImportApiRs(
+        this.jobLauncher.run(this.incrementalImportJob, jobParametersBuilder.toJobParameters()));
+    } catch (JobExecutionException e) {
+      log.error("Unable to start an import of {}", csvPath, e);
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+        "Unable to start the import");
+    }
+  }
+
+  /**
+   * @return the real path of {@code csvPath} resolved against the import directory
+   * @throws ResponseStatusException 400 when the file does not exist or is outside the directory
+   */
+  private Path resolveInImportDirectory(String csvPath) {
+    try {
+      var resolved = this.importDirectory.resolve(csvPath).normalize();
+      if (resolved.startsWith(this.importDirectory) && Files.isRegularFile(resolved)) {
+        var real = resolved.toRealPath();
+        if (real.startsWith(this.importDirectory.toRealPath())) {
+          return real;
+        }
+      }
+    } catch (InvalidPathException | IOException e) {
+      log.debug("Unable to resolve {} in {}", csvPath, this.importDirectory, e);
+    }
+    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+      "CSV file not found in the import directory: " + csvPath);
+  }
+
+  public ImportApiRs getImport(long executionId) {
+    var execution = this.jobExplorer.getJobExecution(executionId);
+    if (execution == null || !IMPORT_JOBS.contains(execution.getJobInstance().getJobName())) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Import Not Found");
+    }
+    return toImportApiRs(execution);
+  }
+
+  static ImportApiRs toImportApiRs(JobExecution execution) {
+    var apiRs = ImportApiRs.builder()
+      .executionId(execution.getId())
+      .jobName(execution.getJobInstance().getJobName())
+      .csvPath(execution.getJobParameters().getString("csvPath"))
+      .status(execution.getStatus().name())
+      .exitCode(execution.getExitStatus().getExitCode())
+      .startTime(execution.getStartTime())
+      .endTime(execution.getEndTime());
+
+    var steps = execution.getStepExecutions().stream()
+      .sorted(Comparator.comparing(step -> step.getId() == null ? Long.MAX_VALUE : step.getId()))
+      .toList();
+    for (var step : steps) {
+      var context = step.getExecutionContext();
+      if (context.containsKey(PostcodeDeltaTasklet.DELETED)) {
+        apiRs.deleted(context.getInt(PostcodeDeltaTasklet.DELETED))
+          .updated(context.getInt(PostcodeDeltaTasklet.UPDATED))
+          .inserted(context.getInt(PostcodeDeltaTasklet.INSERTED));
+      }
+    }
+    return apiRs
+      .steps(steps.stream()
+        .map(step -> ImportStepApiRs.builder()
+          .name(step.getStepName())
+          .status(step.getStatus().name())
+          .readCount(step.getReadCount())
+          .writeCount(step.getWriteCount())
+          .filterCount(step.getFilterCount())
+          .build())
+        .toList())
+      .build();
+  }
+}
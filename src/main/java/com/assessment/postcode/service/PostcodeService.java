@@ -1,100 +1,594 @@
 package com.assessment.postcode.service;
 
+import com.assessment.postcode.cache.DistanceCache;
+import com.assessment.postcode.cache.PostcodeCache;
 import com.assessment.postcode.dto.UkPostcodeDto;
-import com.assessment.postcode.mapper.PostcodeMapper;
+import com.assessment.postcode.index.FixedPoint;
+import com.assessment.postcode.index.GeoGrid;
+import com.assessment.postcode.index.PostcodeIndex;
+import com.assessment.postcode.index.PostcodeKeys;
+import com.assessment.postcode.model.BulkUpdateCoordApiRs;
+import com.assessment.postcode.model.CoordinatesRq;
 import com.assessment.postcode.model.DistanceApiRs;
+import com.assessment.postcode.model.DistanceMode;
 import com.assessment.postcode.model.GetDistanceApiRs;
+import com.assessment.postcode.model.NearbyPostcodesApiRs;
+import com.assessment.postcode.model.PostcodeCoordinatesRq;
+import com.assessment.postcode.model.PostcodeDistanceRs;
+import com.assessment.postcode.model.PrefixPostcodesApiRs;
+import com.assessment.postcode.model.ReverseGeocodeApiRs;
+import com.assessment.postcode.model.ReverseGeocodeResultRs;
+import com.assessment.postcode.model.UpdateCoordFailureRs;
+import com.assessment.postcode.repository.UkPostcodeJdbcRepo;
 import com.assessment.postcode.repository.UkPostcodeRepo;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @Slf4j
+@Timed(value = "postcode.service", percentiles = {0.5, 0.95, 0.99}, histogram = true)
 public class PostcodeService {
 
   private final UkPostcodeRepo ukPostcodeRepo;
-  private final PostcodeMapper postcodeMapper;
+  private final PostcodeIndex postcodeIndex;
+  private final PostcodeCache postcodeCache;
+  private final DistanceCache distanceCache;
+  private final CoalescingPostcodeLoader postcodeLoader;
 
-  private static final double EARTH_RADIUS = 6371; // radius in kilometers
+  static final int MAX_MATRIX_POSTCODES = 5000;
+  static final double MAX_RADIUS_KM = 50;
+  static final int MAX_NEARBY_POSTCODES = 1000;
+  static final int MAX_REVERSE_GEOCODE_POINTS = 10000;
+  static final int MAX_PREFIX_POSTCODES = 10000;
+  static final int MAX_BATCH_LOOKUP_POSTCODES = 50000;
+  static final int MAX_BULK_COORDINATE_UPDATES = 100000;
+  static final int COORDINATE_UPDATE_CHUNK = 1000;
 
-  public PostcodeService(UkPostcodeRepo ukPostcodeRepo, PostcodeMapper postcodeMapper) {
+  private static final double MIN_LATITUDE = 49.9;
+  private static final double MAX_LATITUDE = 60.9;
+  private static final double MIN_LONGITUDE = -8.2;
+  private static final double MAX_LONGITUDE = 1.8;
+  private static final String UK_BOUNDS_MESSAGE =
+    "Latitude or longitude is out of valid UK bounds. Expected lat between 49.9 and 60.9, lon between -8.2 and 1.8.";
+
+  public PostcodeService(UkPostcodeRepo ukPostcodeRepo, PostcodeIndex postcodeIndex,
+    PostcodeCache postcodeCache, DistanceCache distanceCache,
+    CoalescingPostcodeLoader postcodeLoader) {
     this.ukPostcodeRepo = ukPostcodeRepo;
-    this.postcodeMapper = postcodeMapper;
+    this.postcodeIndex = postcodeIndex;
+    this.postcodeCache = postcodeCache;
+    this.distanceCache = distanceCache;
+    this.postcodeLoader = postcodeLoader;
   }
 
+  /**
+   * Looks a postcode up in any case and spacing, e.g. {@code "ab101xg"} finds {@code "AB10 1XG"}.
+   * Without the index, cache misses go through {@link CoalescingPostcodeLoader}, which shares
+   * concurrent loads of the same postcode and batches different ones into one query.
+   */
   public UkPostcodeDto getByPostcode(String postcode) {
-    return this.ukPostcodeRepo.findByPostcode(postcode)
-      .map(this.postcodeMapper::toDto)
+    var snapshot = this.postcodeIndex.snapshot();
+    if (snapshot != null) {
+      return snapshot.toDto(this.slotOf(snapshot, postcode));
+    }
+
+    return this.postcodeCache.get(this.canonicalize(postcode),
+        canonical -> this.postcodeLoader.load(PostcodeKeys.pack(canonical)))
       .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Entity Not Found"));
   }
 
-  public UkPostcodeDto updateCoordinatesByPostcode(String postcode, BigDecimal latitude,
-    BigDecimal longitude) {
-
-    if (latitude.compareTo(new BigDecimal("49.9")) < 0
-      || latitude.compareTo(new BigDecimal("60.9")) > 0
-      || longitude.compareTo(new BigDecimal("-8.2")) < 0
-      || longitude.compareTo(new BigDecimal("1.8")) > 0) {
+  /**
+   * Prepares a lookup of many postcodes, which is resolved block by block as it is streamed.
+   */
+  public PostcodeBatchLookup lookupPostcodes(List<String> postcodes) {
+    if (postcodes == null || postcodes.isEmpty()
+      || postcodes.size() > MAX_BATCH_LOOKUP_POSTCODES) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-        "Latitude or longitude is out of valid UK bounds. Expected lat between 49.9 and 60.9, lon between -8.2 and 1.8.");
+        "Expected between 1 and " + MAX_BATCH_LOOKUP_POSTCODES + " postcodes.");
     }
 
+    return new PostcodeBatchLookup(postcodes, this.postcodeIndex.snapshot(),
+      this.ukPostcodeRepo::findByPostcodeKeyIn);
+  }
+
+  public UkPostcodeDto updateCoordinatesByPostcode(String postcode, Double latitude,
+    Double longitude) {
+
+    this.validateUkBounds(latitude, longitude);
+
     var dto = this.getByPostcode(postcode);
+    this.postcodeIndex.invalidateSnapshotFile();
+    int updated = this.ukPostcodeRepo.updateCoordinates(new UkPostcodeJdbcRepo.CoordinatesUpdate(
+      PostcodeKeys.key(dto.getPostcode()), latitude, longitude));
+    if (updated == 0) {
+      // deleted by an import since it was read
+      this.postcodeCache.invalidate(List.of(dto.getPostcode()));
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Entity Not Found");
+    }
+
     dto.setLatitude(latitude);
     dto.setLongitude(longitude);
-
-    this.ukPostcodeRepo.save(this.postcodeMapper.toEntity(dto));
+    this.postcodeCache.put(dto.getPostcode(), dto);
+    this.postcodeIndex.updateCoordinates(dto.getPostcode(), latitude, longitude);
+    this.distanceCache.invalidate(dto.getPostcode());
     return dto;
   }
 
-  public GetDistanceApiRs constructPostcodesDistance(String postcode1, String postcode2) {
+  /**
+   * Applies coordinate corrections with JDBC batch updates of {@value #COORDINATE_UPDATE_CHUNK}
+   * rows, each committed in its own transaction. Rows with a malformed postcode, coordinates out
+   * of UK bounds or an unknown postcode are skipped and reported; every other row is applied.
+   */
+  public BulkUpdateCoordApiRs updateCoordinates(List<PostcodeCoordinatesRq> updates) {
+    if (updates == null || updates.isEmpty() || updates.size() > MAX_BULK_COORDINATE_UPDATES) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+        "Expected between 1 and " + MAX_BULK_COORDINATE_UPDATES + " updates.");
+    }
+
+    List<UpdateCoordFailureRs> failures = new ArrayList<>();
+    List<Integer> rows = new ArrayList<>(updates.size());
+    List<UkPostcodeJdbcRepo.CoordinatesUpdate> valid = new ArrayList<>(updates.size());
+    for (int i = 0; i < updates.size(); i++) {
+      var update = updates.get(i);
+      String postcode = update == null ? null : update.getPostcode();
+      long key = PostcodeKeys.key(postcode);
+      if (key == PostcodeKeys.INVALID) {
+        failures.add(new UpdateCoordFailureRs(i, postcode, "Invalid postcode"));
+      } else if (!this.isWithinUkBounds(update.getLatitude(), update.getLongitude())) {
+        failures.add(new UpdateCoordFailureRs(i, postcode, UK_BOUNDS_MESSAGE));
+      } else {
+        rows.add(i);
+        valid.add(new UkPostcodeJdbcRepo.CoordinatesUpdate(key, update.getLatitude(),
+          update.getLongitude()));
+      }
+    }
+
+    if (!valid.isEmpty()) {
+      this.postcodeIndex.invalidateSnapshotFile();
+    }
+    int updated = 0;
+    for (int from = 0; from < valid.size(); from += COORDINATE_UPDATE_CHUNK) {
+      var chunk = valid.subList(from, Math.min(from + COORDINATE_UPDATE_CHUNK, valid.size()));
+      int[] counts = this.ukPostcodeRepo.updateCoordinates(chunk);
+
+      List<String> changed = new ArrayList<>(chunk.size());
+      for (int j = 0; j < chunk.size(); j++) {
+        int row = rows.get(from + j);
+        if (counts[j] == 0) {
+          failures.add(new UpdateCoordFailureRs(row, updates.get(row).getPostcode(),
+            "Entity Not Found"));
+          continue;
+        }
+        var update = chunk.get(j);
+        String canonical = PostcodeKeys.unpack(update.postcodeKey());
+        this.postcodeIndex.updateCoordinates(canonical, update.latitude(), update.longitude());
+        changed.add(canonical);
+        updated++;
+      }
+      this.postcodeCache.invalidate(changed);
+      this.distanceCache.invalidate(changed);
+    }
+
+    failures.sort(Comparator.comparingInt(UpdateCoordFailureRs::getIndex));
+    log.info("Updated coordinates of {} postcodes, {} rows failed", updated, failures.size());
+    return BulkUpdateCoordApiRs.builder()
+      .updated(updated)
+      .failures(failures)
+      .build();
+  }
+
+  /**
+   * @param mode {@code exact} (the default when {@code null}) or {@code fast}, see
+   *   {@link DistanceMode}
+   */
+  public GetDistanceApiRs constructPostcodesDistance(String postcode1, String postcode2,
+    String mode) {
+    var distanceMode = this.toDistanceMode(mode);
+    String canonical1 = this.canonicalize(postcode1);
+    String canonical2 = this.canonicalize(postcode2);
+    var entry = this.distanceCache.get(canonical1, canonical2, distanceMode,
+      () -> this.computePostcodesDistance(canonical1, canonical2, distanceMode));
+    return this.toDistanceApiRs(entry.postcode1(), entry.postcode2(), entry.distanceKm(),
+      distanceMode);
+  }
+
+  private DistanceCache.Entry computePostcodesDistance(String postcode1, String postcode2,
+    DistanceMode mode) {
+
+    var snapshot = this.postcodeIndex.snapshot();
+    if (snapshot != null) {
+      return this.computePostcodesDistance(snapshot, postcode1, postcode2, mode);
+    }
 
     var dto1 = this.getByPostcode(postcode1);
     var dto2 = this.getByPostcode(postcode2);
 
-    var distance = this.calculateDistanceInKm(
-      dto1.getLatitude().doubleValue(),
-      dto1.getLongitude().doubleValue(),
-      dto2.getLatitude().doubleValue(),
-      dto2.getLongitude().doubleValue()
+    var distance = this.calculateDistanceInKm(mode,
+      dto1.getLatitude(),
+      dto1.getLongitude(),
+      dto2.getLatitude(),
+      dto2.getLongitude()
+    );
+
+    return new DistanceCache.Entry(dto1, dto2, distance);
+  }
+
+  private DistanceCache.Entry computePostcodesDistance(PostcodeIndex.Snapshot snapshot,
+    String postcode1, String postcode2, DistanceMode mode) {
+
+    int slot1 = this.slotOf(snapshot, postcode1);
+    int slot2 = this.slotOf(snapshot, postcode2);
+    long coordinates1 = snapshot.coordinates(slot1);
+    long coordinates2 = snapshot.coordinates(slot2);
+
+    var distance = this.calculateDistanceInKm(mode,
+      FixedPoint.toDegrees(FixedPoint.latitudeMicros(coordinates1)),
+      FixedPoint.toDegrees(FixedPoint.longitudeMicros(coordinates1)),
+      FixedPoint.toDegrees(FixedPoint.latitudeMicros(coordinates2)),
+      FixedPoint.toDegrees(FixedPoint.longitudeMicros(coordinates2))
     );
 
+    return new DistanceCache.Entry(snapshot.toDto(slot1), snapshot.toDto(slot2), distance);
+  }
+
+  public DistanceMatrix constructDistanceMatrix(List<String> origins, List<String> destinations,
+    String mode) {
+
+    var distanceMode = this.toDistanceMode(mode);
+
+    if (origins == null || destinations == null || origins.isEmpty() || destinations.isEmpty()
+      || origins.size() > MAX_MATRIX_POSTCODES || destinations.size() > MAX_MATRIX_POSTCODES) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+        "Expected between 1 and " + MAX_MATRIX_POSTCODES + " origins and destinations.");
+    }
+
+    var postcodes = new LinkedHashSet<String>(origins);
+    postcodes.addAll(destinations);
+    var coordinates = this.resolveCoordinates(postcodes);
+
+    var missing = postcodes.stream().filter(p -> !coordinates.containsKey(p)).toList();
+    if (!missing.isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+        "Entity Not Found: " + String.join(", ", missing));
+    }
+
+    var originLatitudes = new double[origins.size()];
+    var originLongitudes = new double[origins.size()];
+    for (int i = 0; i < origins.size(); i++) {
+      var point = coordinates.get(origins.get(i));
+      originLatitudes[i] = point[0];
+      originLongitudes[i] = point[1];
+    }
+    var destinationLatitudes = new double[destinations.size()];
+    var destinationLongitudes = new double[destinations.size()];
+    for (int i = 0; i < destinations.size(); i++) {
+      var point = coordinates.get(destinations.get(i));
+      destinationLatitudes[i] = point[0];
+      destinationLongitudes[i] = point[1];
+    }
+
+    return new DistanceMatrix(distanceMode, origins, originLatitudes, originLongitudes,
+      destinations, destinationLatitudes, destinationLongitudes);
+  }
+
+  /**
+   * Resolves all postcodes with one index snapshot or one {@code IN} query.
+   *
+   * @return latitude and longitude in degrees keyed by postcode; unknown postcodes and those
+   *   without coordinates are absent
+   */
+  private Map<String, double[]> resolveCoordinates(Collection<String> postcodes) {
+    Map<String, double[]> coordinates = new HashMap<>();
+
+    var snapshot = this.postcodeIndex.snapshot();
+    if (snapshot != null) {
+      for (String postcode : postcodes) {
+        int slot = snapshot.slotOf(postcode);
+        if (slot < 0) {
+          continue;
+        }
+        long packed = snapshot.coordinates(slot);
+        int latitudeMicros = FixedPoint.latitudeMicros(packed);
+        int longitudeMicros = FixedPoint.longitudeMicros(packed);
+        if (latitudeMicros != FixedPoint.NONE && longitudeMicros != FixedPoint.NONE) {
+          coordinates.put(postcode, new double[] {
+            FixedPoint.toDegrees(latitudeMicros), FixedPoint.toDegrees(longitudeMicros)});
+        }
+      }
+      return coordinates;
+    }
+
+    // several spellings such as "ab101xg" and "AB10 1XG" share one key, and each is resolved
+    Map<Long, List<String>> postcodesByKey = new HashMap<>();
+    for (String postcode : postcodes) {
+      long key = PostcodeKeys.key(postcode);
+      if (key != PostcodeKeys.INVALID) {
+        postcodesByKey.computeIfAbsent(key, k -> new ArrayList<>(1)).add(postcode);
+      }
+    }
+    for (var dto : this.ukPostcodeRepo.findByPostcodeKeyIn(postcodesByKey.keySet())) {
+      var spellings = postcodesByKey.get(PostcodeKeys.key(dto.getPostcode()));
+      if (spellings == null || dto.getLatitude() == null || dto.getLongitude() == null) {
+        continue;
+      }
+      var point = new double[] {dto.getLatitude(), dto.getLongitude()};
+      for (String spelling : spellings) {
+        coordinates.put(spelling, point);
+      }
+    }
+    return coordinates;
+  }
+
+  /**
+   * Lists the postcodes of an outcode such as {@code "AB10"}, in postcode order.
+   */
+  public PrefixPostcodesApiRs findPostcodesByOutcode(String outcode, int limit) {
+    var range = PostcodeKeys.outcodeRange(outcode);
+    if (range == null) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+        "Outcode must be 2 to 4 letters and digits starting with a letter.");
+    }
+    return this.findPostcodesInRange(range, limit);
+  }
+
+  /**
+   * Lists the postcodes of a sector such as {@code "AB10 1"}, in postcode order.
+   */
+  public PrefixPostcodesApiRs findPostcodesBySector(String sector, int limit) {
+    var range = PostcodeKeys.sectorRange(sector);
+    if (range == null) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+        "Sector must be an outcode followed by one digit.");
+    }
+    return this.findPostcodesInRange(range, limit);
+  }
+
+  private PrefixPostcodesApiRs findPostcodesInRange(PostcodeKeys.Range range, int limit) {
+    if (limit < 1 || limit > MAX_PREFIX_POSTCODES) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+        "Limit must be between 1 and " + MAX_PREFIX_POSTCODES + ".");
+    }
+
+    // the prefix is the range's lower key with the zero padding dropped
+    String prefix = PostcodeKeys.unpack(range.from());
+    List<UkPostcodeDto> postcodes;
+    var snapshot = this.postcodeIndex.snapshot();
+    if (snapshot != null) {
+      int start = snapshot.rangeStart(range);
+      int end = Math.min(snapshot.rangeEnd(range), start + limit);
+      postcodes = new ArrayList<>(end - start);
+      for (int slot = start; slot < end; slot++) {
+        postcodes.add(snapshot.toDto(slot));
+      }
+    } else {
+      postcodes = this.ukPostcodeRepo.findByPostcodeKeyBetweenOrderByPostcodeKey(range.from(),
+          range.to(), Limit.of(limit));
+    }
+
+    return PrefixPostcodesApiRs.builder()
+      .prefix(prefix.strip())
+      .postcodes(postcodes)
+      .build();
+  }
+
+  /**
+   * Finds postcodes within {@code radiusKm} of a postcode, or of a latitude/longitude when no
+   * postcode is given.
+   */
+  public NearbyPostcodesApiRs findPostcodesWithinRadius(String postcode, Double latitude,
+    Double longitude, double radiusKm, int limit) {
+
+    if (!(radiusKm > 0 && radiusKm <= MAX_RADIUS_KM)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+        "Radius must be greater than 0 and at most " + MAX_RADIUS_KM + " km.");
+    }
+    this.validateLimit(limit);
+
+    var snapshot = this.requireIndex();
+    var centre = this.resolveCentre(snapshot, postcode, latitude, longitude);
+    return this.toNearbyPostcodesApiRs(snapshot, centre,
+      snapshot.withinRadius(centre[0], centre[1], radiusKm, limit));
+  }
+
+  /**
+   * Finds the {@code k} postcodes nearest to a postcode, or to a latitude/longitude when no
+   * postcode is given.
+   */
+  public NearbyPostcodesApiRs findNearestPostcodes(String postcode, Double latitude,
+    Double longitude, int k) {
+
+    this.validateLimit(k);
+
+    var snapshot = this.requireIndex();
+    var centre = this.resolveCentre(snapshot, postcode, latitude, longitude);
+    return this.toNearbyPostcodesApiRs(snapshot, centre,
+      snapshot.nearest(centre[0], centre[1], k));
+  }
+
+  /**
+   * @return the postcode nearest to a point within UK bounds, and its distance from the point
+   */
+  public PostcodeDistanceRs reverseGeocode(Double latitude, Double longitude) {
+    this.validateUkBounds(latitude, longitude);
+    return this.reverseGeocode(this.requireIndex(), latitude, longitude);
+  }
+
+  /**
+   * Resolves each point on the calling thread. A point outside UK bounds, or with no postcode
+   * near it, is reported in its own entry rather than failing the batch.
+   */
+  public ReverseGeocodeApiRs reverseGeocode(List<CoordinatesRq> points) {
+    if (points == null || points.isEmpty() || points.size() > MAX_REVERSE_GEOCODE_POINTS) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+        "Expected between 1 and " + MAX_REVERSE_GEOCODE_POINTS + " points.");
+    }
+
+    var snapshot = this.requireIndex();
+    List<ReverseGeocodeResultRs> results = new ArrayList<>(points.size());
+    for (var point : points) {
+      results.add(this.reverseGeocodeResult(snapshot, point));
+    }
+    return ReverseGeocodeApiRs.builder().results(results).build();
+  }
+
+  private ReverseGeocodeResultRs reverseGeocodeResult(PostcodeIndex.Snapshot snapshot,
+    CoordinatesRq point) {
+
+    var result = ReverseGeocodeResultRs.builder()
+      .latitude(point == null ? null : point.getLatitude())
+      .longitude(point == null ? null : point.getLongitude());
+    if (point == null || !this.isWithinUkBounds(point.getLatitude(), point.getLongitude())) {
+      return result.reason(UK_BOUNDS_MESSAGE).build();
+    }
+
+    var nearest = snapshot.nearest(point.getLatitude(), point.getLongitude(), 1);
+    if (nearest.isEmpty()) {
+      return result.reason("Entity Not Found").build();
+    }
+    var neighbour = nearest.get(0);
+    var distance = this.toPostcodeDistanceRs(snapshot.toDto(neighbour.slot()),
+      neighbour.distanceKm());
+    return result.found(true)
+      .postcode(distance.getPostcode())
+      .distance(distance.getDistance())
+      .build();
+  }
+
+  private PostcodeDistanceRs reverseGeocode(PostcodeIndex.Snapshot snapshot, double latitude,
+    double longitude) {
+    var nearest = snapshot.nearest(latitude, longitude, 1);
+    if (nearest.isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Entity Not Found");
+    }
+    var neighbour = nearest.get(0);
+    return this.toPostcodeDistanceRs(snapshot.toDto(neighbour.slot()), neighbour.distanceKm());
+  }
+
+  private PostcodeIndex.Snapshot requireIndex() {
+    var snapshot = this.postcodeIndex.snapshot();
+    if (snapshot == null) {
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+        "Postcode index is not loaded");
+    }
+    return snapshot;
+  }
+
+  private double[] resolveCentre(PostcodeIndex.Snapshot snapshot, String postcode,
+    Double latitude, Double longitude) {
+    if (postcode != null) {
+      long packed = snapshot.coordinates(this.slotOf(snapshot, postcode));
+      return new double[] {FixedPoint.toDegrees(FixedPoint.latitudeMicros(packed)),
+        FixedPoint.toDegrees(FixedPoint.longitudeMicros(packed))};
+    }
+    if (latitude == null || longitude == null) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+        "Either postcode or latitude and longitude must be provided.");
+    }
+    this.validateUkBounds(latitude, longitude);
+    return new double[] {latitude, longitude};
+  }
+
+  private void validateUkBounds(Double latitude, Double longitude) {
+    if (!this.isWithinUkBounds(latitude, longitude)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, UK_BOUNDS_MESSAGE);
+    }
+  }
+
+  private boolean isWithinUkBounds(Double latitude, Double longitude) {
+    return latitude != null && longitude != null
+      && latitude >= MIN_LATITUDE && latitude <= MAX_LATITUDE
+      && longitude >= MIN_LONGITUDE && longitude <= MAX_LONGITUDE;
+  }
+
+  private void validateLimit(int limit) {
+    if (limit < 1 || limit > MAX_NEARBY_POSTCODES) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+        "Limit must be between 1 and " + MAX_NEARBY_POSTCODES + ".");
+    }
+  }
+
+  private NearbyPostcodesApiRs toNearbyPostcodesApiRs(PostcodeIndex.Snapshot snapshot,
+    double[] centre, List<GeoGrid.Neighbour> neighbours) {
+    return NearbyPostcodesApiRs.builder()
+      .latitude(centre[0])
+      .longitude(centre[1])
+      .postcodes(neighbours.stream()
+        .map(n -> this.toPostcodeDistanceRs(snapshot.toDto(n.slot()), n.distanceKm()))
+        .toList())
+      .build();
+  }
+
+  private PostcodeDistanceRs toPostcodeDistanceRs(UkPostcodeDto dto, double distance) {
+    return PostcodeDistanceRs.builder()
+      .postcode(dto)
+      .distance(
+        DistanceApiRs.builder()
+          .unit("km")
+          .value(distance)
+          .build()
+      )
+      .build();
+  }
+
+  private GetDistanceApiRs toDistanceApiRs(UkPostcodeDto dto1, UkPostcodeDto dto2,
+    double distance, DistanceMode mode) {
     return GetDistanceApiRs.builder()
+      .mode(mode.getValue())
       .postcode1(dto1)
       .postcode2(dto2)
       .distance(
         DistanceApiRs.builder()
           .unit("km")
-          .value(BigDecimal.valueOf(distance))
+          .value(distance)
           .build()
       )
       .build();
   }
 
-  private double calculateDistanceInKm(double latitude, double longitude, double latitude2, double
-    longitude2) {
-    // Using Haversine formula! See Wikipedia;
-    double lon1Radians = Math.toRadians(longitude);
-    double lon2Radians = Math.toRadians(longitude2);
-    double lat1Radians = Math.toRadians(latitude);
-    double lat2Radians = Math.toRadians(latitude2);
-    double a = haversine(lat1Radians, lat2Radians)
-      + Math.cos(lat1Radians) * Math.cos(lat2Radians) * haversine(lon1Radians, lon2Radians);
-    double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+  private String canonicalize(String postcode) {
+    String canonical = PostcodeKeys.canonicalize(postcode);
+    if (canonical == null) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Entity Not Found");
+    }
+    return canonical;
+  }
 
-    return (EARTH_RADIUS * c);
+  private int slotOf(PostcodeIndex.Snapshot snapshot, String postcode) {
+    int slot = snapshot.slotOf(postcode);
+    if (slot < 0) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Entity Not Found");
+    }
+    return slot;
   }
 
-  private double haversine(double deg1, double deg2) {
-    return square(Math.sin((deg1 - deg2) / 2.0));
+  private double calculateDistanceInKm(DistanceMode mode, double latitude, double longitude,
+    double latitude2, double longitude2) {
+    return mode == DistanceMode.FAST
+      ? GeoDistance.equirectangularKm(latitude, longitude, latitude2, longitude2)
+      : GeoDistance.haversineKm(latitude, longitude, latitude2, longitude2);
   }
 
-  private double square(double x) {
-    return x * x;
+  private DistanceMode toDistanceMode(String mode) {
+    if (mode == null) {
+      return DistanceMode.EXACT;
+    }
+    var distanceMode = DistanceMode.of(mode);
+    if (distanceMode == null) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Mode must be exact or fast.");
+    }
+    return distanceMode;
   }
 
 }
@@ -0,0 +1,63 @@
+package com.assessment.postcode.service;
+
+import com.assessment.postcode.dto.UkPostcodeDto;
+import com.assessment.postcode.model.GetDistanceApiRs;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Non-blocking front for the lookup and distance queries of {@link PostcodeService}, which still
+ * does the validation and distance work. Only registered while {@code postcode.index.enabled} is
+ * off: every query then reads the database, and runs on a scheduler of its own with
+ * {@code postcode.async.jdbc-threads} threads, which should match the connection pool, and at
+ * most {@code postcode.async.jdbc-queue-capacity} waiting queries. Beyond that a query fails
+ * with 503 instead of queueing without bound.
+ */
+@Service
+@ConditionalOnProperty(name = "postcode.index.enabled", havingValue = "false", matchIfMissing = true)
+public class ReactivePostcodeService implements DisposableBean {
+
+  private final PostcodeService postcodeService;
+  private final Scheduler jdbcScheduler;
+
+  public ReactivePostcodeService(PostcodeService postcodeService,
+    @Value("${postcode.async.jdbc-threads:10}") int jdbcThreads,
+    @Value("${postcode.async.jdbc-queue-capacity:10000}") int jdbcQueueCapacity) {
+    this.postcodeService = postcodeService;
+    this.jdbcScheduler = Schedulers.newBoundedElastic(jdbcThreads, jdbcQueueCapacity,
+      "postcode-jdbc", 60, true);
+  }
+
+  public Mono<UkPostcodeDto> getByPostcode(String postcode) {
+    return this.defer(() -> this.postcodeService.getByPostcode(postcode));
+  }
+
+  public Mono<GetDistanceApiRs> constructPostcodesDistance(String postcode1, String postcode2,
+    String mode) {
+    return this.defer(
+      () -> this.postcodeService.constructPostcodesDistance(postcode1, postcode2, mode));
+  }
+
+  private <T> Mono<T> defer(Callable<T> query) {
+    return Mono.fromCallable(query)
+      .subscribeOn(this.jdbcScheduler)
+      .onErrorMap(RejectedExecutionException.class,
+        e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+          "Too many pending database queries"));
+  }
+
+  @Override
+  public void destroy() {
+    this.jdbcScheduler.dispose();
+  }
+}
@@ -0,0 +1,205 @@
+package com.assessment.postcode.service;
+
+import com.assessment.postcode.batch.ZoneTableTasklet;
+import com.assessment.postcode.model.ZoneApiRs;
+import com.assessment.postcode.model.ZoneAssignmentApiRq;
+import com.assessment.postcode.model.ZoneAssignmentApiRs;
+import com.assessment.postcode.model.ZoneClassificationApiRs;
+import com.assessment.postcode.model.ZonesApiRs;
+import com.assessment.postcode.zone.Zone;
+import com.assessment.postcode.zone.ZoneIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Classifies postcodes and points into the delivery zones of {@link ZoneIndex}, and starts
+ * {@code zoneAssignmentJob}, which stores the zone of every postcode in
+ * {@value ZoneTableTasklet#ZONE_TABLE}.
+ */
+@Service
+@Slf4j
+public class ZoneService {
+
+  static final String ZONE_ASSIGNMENT_JOB = "zoneAssignmentJob";
+  static final int MAX_PARTITIONS = 64;
+
+  private final ZoneIndex zoneIndex;
+  private final PostcodeService postcodeService;
+  private final JdbcTemplate jdbcTemplate;
+  private final JobExplorer jobExplorer;
+  private final Job zoneAssignmentJob;
+  private final TaskExecutorJobLauncher jobLauncher;
+
+  public ZoneService(ZoneIndex zoneIndex, PostcodeService postcodeService,
+    JdbcTemplate jdbcTemplate, JobRepository jobRepository, JobExplorer jobExplorer,
+    @Qualifier("zoneAssignmentJob") Job zoneAssignmentJob, Environment environment)
+    throws Exception {
+    this.zoneIndex = zoneIndex;
+    this.postcodeService = postcodeService;
+    this.jdbcTemplate = jdbcTemplate;
+    this.jobExplorer = jobExplorer;
+    this.zoneAssignmentJob = zoneAssignmentJob;
+    this.jobLauncher = PostcodeImportService.asyncJobLauncher(jobRepository, environment,
+      "zones-launch-");
+  }
+
+  /**
+   * Classifies a postcode, in any case and spacing, or a latitude/longitude when no postcode is
+   * given. A postcode without coordinates, or a point outside every zone, has no zone.
+   */
+  public ZoneClassificationApiRs classify(String postcode, Double latitude, Double longitude) {
+    this.requireZones();
+
+    var apiRs = ZoneClassificationApiRs.builder();
+    if (postcode != null) {
+      var dto = this.postcodeService.getByPostcode(postcode);
+      apiRs.postcode(dto);
+      latitude = dto.getLatitude();
+      longitude = dto.getLongitude();
+      if (latitude == null || longitude == null) {
+        return apiRs.build();
+      }
+    } else if (latitude == null || longitude == null
+      || !Double.isFinite(latitude) || !Double.isFinite(longitude)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+        "Either postcode or latitude and longitude must be provided.");
+    }
+
+    Zone zone = this.zoneIndex.classify(latitude, longitude);
+    return apiRs
+      .latitude(latitude)
+      .longitude(longitude)
+      .zoneId(zone == null ? null : zone.getId())
+      .zoneName(zone == null ? null : zone.getName())
+      .build();
+  }
+
+  /**
+   * Lists the zones in file order, with the number of postcodes the last assignment run put in
+   * each.
+   */
+  public ZonesApiRs getZones() {
+    this.requireZones();
+
+    Map<String, Long> counts = this.countAssignments();
+    return ZonesApiRs.builder()
+      .zones(this.zoneIndex.zones().stream()
+        .map(zone -> ZoneApiRs.builder()
+          .id(zone.getId())
+          .name(zone.getName())
+          .postcodes(counts == null ? null : counts.getOrDefault(zone.getId(), 0L))
+          .build())
+        .toList())
+      .build();
+  }
+
+  /**
+   * @return postcodes per zone id, or {@code null} when the assignment job has never run
+   */
+  private Map<String, Long> countAssignments() {
+    Map<String, Long> counts = new HashMap<>();
+    try {
+      this.jdbcTemplate.query("SELECT ZONE_ID, COUNT(*) FROM " + ZoneTableTasklet.ZONE_TABLE
+        + " GROUP BY ZONE_ID", rs -> {
+        counts.put(rs.getString(1), rs.getLong(2));
+      });
+      return counts;
+    } catch (DataAccessException e) {
+      log.debug("{} is not readable yet", ZoneTableTasklet.ZONE_TABLE, e);
+      return null;
+    }
+  }
+
+  public synchronized ZoneAssignmentApiRs startAssignment(ZoneAssignmentApiRq apiRq) {
+    this.requireZones();
+
+    Long partitions = apiRq == null ? null : apiRq.getPartitions();
+    if (partitions != null && (partitions < 1 || partitions > MAX_PARTITIONS)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+        "Partitions must be between 1 and " + MAX_PARTITIONS + ".");
+    }
+    if (!this.jobExplorer.findRunningJobExecutions(ZONE_ASSIGNMENT_JOB).isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT,
+        "A zone assignment is already running");
+    }
+    for (String jobName : PostcodeImportService.IMPORT_JOBS) {
+      if (!this.jobExplorer.findRunningJobExecutions(jobName).isEmpty()) {
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "An import is running");
+      }
+    }
+
+    var jobParametersBuilder = new JobParametersBuilder()
+      .addLong("run.id", System.currentTimeMillis());
+    if (partitions != null) {
+      jobParametersBuilder.addLong("partitions", partitions);
+    }
+
+    try {
+      log.info("RUNNING {} from the admin API", ZONE_ASSIGNMENT_JOB);
+      return toZoneAssignmentApiRs(
+        this.jobLauncher.run(this.zoneAssignmentJob, jobParametersBuilder.toJobParameters()));
+    } catch (JobExecutionException e) {
+      log.error("Unable to start a zone assignment", e);
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+        "Unable to start the zone assignment");
+    }
+  }
+
+  public ZoneAssignmentApiRs getAssignment(long executionId) {
+    var execution = this.jobExplorer.getJobExecution(executionId);
+    if (execution == null
+      || !ZONE_ASSIGNMENT_JOB.equals(execution.getJobInstance().getJobName())) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Zone Assignment Not Found");
+    }
+    return toZoneAssignmentApiRs(execution);
+  }
+
+  static ZoneAssignmentApiRs toZoneAssignmentApiRs(JobExecution execution) {
+    // the partitions report to their own step executions, which the manager step only sums up
+    // once they have all finished, so add them up here to show progress
+    long read = 0;
+    long assigned = 0;
+    long unassigned = 0;
+    for (var step : execution.getStepExecutions()) {
+      if (step.getStepName().startsWith("zoneWorkerStep:")) {
+        read += step.getReadCount();
+        assigned += step.getWriteCount();
+        unassigned += step.getFilterCount();
+      }
+    }
+
+    return ZoneAssignmentApiRs.builder()
+      .executionId(execution.getId())
+      .status(execution.getStatus().name())
+      .exitCode(execution.getExitStatus().getExitCode())
+      .startTime(execution.getStartTime())
+      .endTime(execution.getEndTime())
+      .readCount(read)
+      .assignedCount(assigned)
+      .unassignedCount(unassigned)
+      .build();
+  }
+
+  private void requireZones() {
+    if (!this.zoneIndex.isEnabled()) {
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+        "Zones are not configured");
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package com.assessment.postcode.zone;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Reads zones from a GeoJSON {@code FeatureCollection} or single {@code Feature}, found as a file
+ * or else as a classpath resource. Each feature needs a {@code Polygon} or {@code MultiPolygon}
+ * geometry and an id, taken from {@code properties.id}, the feature {@code id} or
+ * {@code properties.name} in that order.
+ */
+final class GeoJsonZones {
+
+  private GeoJsonZones() {
+  }
+
+  static List<Zone> read(String path, ObjectMapper objectMapper) throws IOException {
+    JsonNode root;
+    if (Files.isRegularFile(Path.of(path))) {
+      root = objectMapper.readTree(Path.of(path).toFile());
+    } else {
+      var resource = new ClassPathResource(path);
+      if (!resource.exists()) {
+        throw new FileNotFoundException("Zones file not found: " + path);
+      }
+      try (var in = resource.getInputStream()) {
+        root = objectMapper.readTree(in);
+      }
+    }
+
+    List<JsonNode> features = new ArrayList<>();
+    switch (root.path("type").asText()) {
+      case "FeatureCollection" -> root.path("features").forEach(features::add);
+      case "Feature" -> features.add(root);
+      default -> throw new IOException(path + " is not a GeoJSON FeatureCollection or Feature");
+    }
+
+    List<Zone> zones = new ArrayList<>(features.size());
+    var ids = new HashSet<String>();
+    for (int i = 0; i < features.size(); i++) {
+      var zone = toZone(features.get(i));
+      if (zone == null) {
+        throw new IOException(path + ": feature " + i
+          + " needs an id and a Polygon or MultiPolygon geometry with valid coordinates");
+      }
+      if (!ids.add(zone.getId())) {
+        throw new IOException(path + ": zone id " + zone.getId() + " is used more than once");
+      }
+      zones.add(zone);
+    }
+    return zones;
+  }
+
+  private static Zone toZone(JsonNode feature) {
+    var properties = feature.path("properties");
+    String id = text(properties.get("id"));
+    if (id == null) {
+      id = text(feature.get("id"));
+    }
+    String name = text(properties.get("name"));
+    if (id == null) {
+      id = name;
+    }
+
+    var geometry = feature.path("geometry");
+    var coordinates = geometry.path("coordinates");
+    List<double[]> rings = new ArrayList<>();
+    boolean valid = switch (geometry.path("type").asText()) {
+      case "Polygon" -> addRings(coordinates, rings);
+      case "MultiPolygon" -> {
+        boolean allValid = coordinates.isArray() && !coordinates.isEmpty();
+        for (var polygon : coordinates) {
+          allValid &= addRings(polygon, rings);
+        }
+        yield allValid;
+      }
+      default -> false;
+    };
+    return id == null || !valid ? null : new Zone(id, name, rings.toArray(double[][]::new));
+  }
+
+  private static boolean addRings(JsonNode polygon, List<double[]> rings) {
+    if (!polygon.isArray() || polygon.isEmpty()) {
+      return false;
+    }
+    for (var ring : polygon) {
+      if (!ring.isArray() || ring.size() < 3) {
+        return false;
+      }
+      double[] points = new double[ring.size() * 2];
+      for (int i = 0; i < ring.size(); i++) {
+        var position = ring.get(i);
+        if (!position.path(0).isNumber() || !position.path(1).isNumber()) {
+          return false;
+        }
+        // GeoJSON positions are longitude first
+        points[2 * i] = position.get(0).asDouble();
+        points[2 * i + 1] = position.get(1).asDouble();
+      }
+      rings.add(points);
+    }
+    return true;
+  }
+
+  private static String text(JsonNode node) {
+    return node == null || node.isNull() || node.asText().isBlank() ? null : node.asText();
+  }
+}
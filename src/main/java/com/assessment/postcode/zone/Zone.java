@@ -0,0 +1,93 @@
+package com.assessment.postcode.zone;
+
+/**
+ * A delivery zone read from a GeoJSON {@code Polygon} or {@code MultiPolygon}. Every ring, outer
+ * or hole, of every polygon is kept as interleaved longitude/latitude pairs, so a point is inside
+ * when a ray from it crosses the rings an odd number of times.
+ */
+public final class Zone {
+
+  private final String id;
+  private final String name;
+  private final double[][] rings;
+  private final double minLatitude;
+  private final double maxLatitude;
+  private final double minLongitude;
+  private final double maxLongitude;
+
+  /**
+   * @param rings each ring as {@code lon0, lat0, lon1, lat1, ...}; closing the ring by repeating
+   *   the first point is optional
+   */
+  public Zone(String id, String name, double[][] rings) {
+    this.id = id;
+    this.name = name;
+    this.rings = rings;
+
+    double minLatitude = Double.POSITIVE_INFINITY;
+    double maxLatitude = Double.NEGATIVE_INFINITY;
+    double minLongitude = Double.POSITIVE_INFINITY;
+    double maxLongitude = Double.NEGATIVE_INFINITY;
+    for (double[] ring : rings) {
+      for (int i = 0; i < ring.length; i += 2) {
+        minLongitude = Math.min(minLongitude, ring[i]);
+        maxLongitude = Math.max(maxLongitude, ring[i]);
+        minLatitude = Math.min(minLatitude, ring[i + 1]);
+        maxLatitude = Math.max(maxLatitude, ring[i + 1]);
+      }
+    }
+    this.minLatitude = minLatitude;
+    this.maxLatitude = maxLatitude;
+    this.minLongitude = minLongitude;
+    this.maxLongitude = maxLongitude;
+  }
+
+  public String getId() {
+    return this.id;
+  }
+
+  public String getName() {
+    return this.name;
+  }
+
+  double[][] rings() {
+    return this.rings;
+  }
+
+  double minLatitude() {
+    return this.minLatitude;
+  }
+
+  double maxLatitude() {
+    return this.maxLatitude;
+  }
+
+  double minLongitude() {
+    return this.minLongitude;
+  }
+
+  double maxLongitude() {
+    return this.maxLongitude;
+  }
+
+  public boolean contains(double latitude, double longitude) {
+    if (latitude < this.minLatitude || latitude > this.maxLatitude
+      || longitude < this.minLongitude || longitude > this.maxLongitude) {
+      return false;
+    }
+
+    boolean inside = false;
+    for (double[] ring : this.rings) {
+      for (int i = 0, j = ring.length - 2; i < ring.length; j = i, i += 2) {
+        double latitudeI = ring[i + 1];
+        double latitudeJ = ring[j + 1];
+        if ((latitudeI > latitude) != (latitudeJ > latitude)
+          && longitude < (ring[j] - ring[i]) * (latitude - latitudeI) / (latitudeJ - latitudeI)
+          + ring[i]) {
+          inside = !inside;
+        }
+      }
+    }
+    return inside;
+  }
+}
@@ -0,0 +1,174 @@
+package com.assessment.postcode.zone;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Regular latitude/longitude grid over the bounding box of all zones, about 5 km across in the
+ * UK. Each cell lists, in zone order, the zones whose bounding box overlaps it, and whether the
+ * zone covers the whole cell:
+ * <ul>
+ *   <li>a cell that no edge of the zone crosses is entirely inside or entirely outside it, which
+ *   one test of its centre decides, so inside cells answer without a point-in-polygon test and
+ *   outside cells drop the zone;</li>
+ *   <li>only cells on the boundary keep the exact test.</li>
+ * </ul>
+ * The grid is built once and never changes, so lookups need no locking.
+ */
+final class ZoneGrid {
+
+  static final double MIN_CELL_DEGREES = 0.05;
+  static final int MAX_CELLS = 1 << 20;
+
+  private static final int[] EMPTY = new int[0];
+  private static final int COVERS_CELL = 1;
+
+  private final List<Zone> zones;
+  private final double minLatitude;
+  private final double minLongitude;
+  private final double cellDegrees;
+  private final int rows;
+  private final int columns;
+  // zone index << 1, or'ed with COVERS_CELL when the zone covers the whole cell
+  private final int[][] cells;
+
+  ZoneGrid(List<Zone> zones) {
+    this.zones = zones;
+
+    double minLatitude = Double.POSITIVE_INFINITY;
+    double maxLatitude = Double.NEGATIVE_INFINITY;
+    double minLongitude = Double.POSITIVE_INFINITY;
+    double maxLongitude = Double.NEGATIVE_INFINITY;
+    for (Zone zone : zones) {
+      minLatitude = Math.min(minLatitude, zone.minLatitude());
+      maxLatitude = Math.max(maxLatitude, zone.maxLatitude());
+      minLongitude = Math.min(minLongitude, zone.minLongitude());
+      maxLongitude = Math.max(maxLongitude, zone.maxLongitude());
+    }
+    if (zones.isEmpty()) {
+      this.minLatitude = this.minLongitude = 0;
+      this.cellDegrees = MIN_CELL_DEGREES;
+      this.rows = this.columns = 0;
+      this.cells = new int[0][];
+      return;
+    }
+
+    double height = maxLatitude - minLatitude;
+    double width = maxLongitude - minLongitude;
+    this.minLatitude = minLatitude;
+    this.minLongitude = minLongitude;
+    // coarser cells for zones spread far apart, so the grid stays within MAX_CELLS
+    this.cellDegrees = Math.max(MIN_CELL_DEGREES, Math.sqrt(height * width / MAX_CELLS) * 1.01);
+    this.rows = (int) (height / this.cellDegrees) + 1;
+    this.columns = (int) (width / this.cellDegrees) + 1;
+    this.cells = new int[this.rows * this.columns][];
+    Arrays.fill(this.cells, EMPTY);
+
+    for (int z = 0; z < zones.size(); z++) {
+      this.addZone(z, zones.get(z));
+    }
+  }
+
+  private void addZone(int index, Zone zone) {
+    int firstRow = this.row(zone.minLatitude());
+    int lastRow = this.row(zone.maxLatitude());
+    int firstColumn = this.column(zone.minLongitude());
+    int lastColumn = this.column(zone.maxLongitude());
+    int width = lastColumn - firstColumn + 1;
+    boolean[] boundary = new boolean[(lastRow - firstRow + 1) * width];
+
+    for (double[] ring : zone.rings()) {
+      for (int i = 0, j = ring.length - 2; i < ring.length; j = i, i += 2) {
+        double longitude1 = ring[j];
+        double latitude1 = ring[j + 1];
+        double longitude2 = ring[i];
+        double latitude2 = ring[i + 1];
+        for (int row = this.row(Math.min(latitude1, latitude2));
+          row <= this.row(Math.max(latitude1, latitude2)); row++) {
+          for (int column = this.column(Math.min(longitude1, longitude2));
+            column <= this.column(Math.max(longitude1, longitude2)); column++) {
+            int cell = (row - firstRow) * width + column - firstColumn;
+            if (!boundary[cell] && this.crossesCell(row, column, longitude1, latitude1,
+              longitude2, latitude2)) {
+              boundary[cell] = true;
+            }
+          }
+        }
+      }
+    }
+
+    for (int row = firstRow; row <= lastRow; row++) {
+      for (int column = firstColumn; column <= lastColumn; column++) {
+        int entry;
+        if (boundary[(row - firstRow) * width + column - firstColumn]) {
+          entry = index << 1;
+        } else if (zone.contains(this.minLatitude + (row + 0.5) * this.cellDegrees,
+          this.minLongitude + (column + 0.5) * this.cellDegrees)) {
+          entry = index << 1 | COVERS_CELL;
+        } else {
+          continue;
+        }
+        int cell = row * this.columns + column;
+        int[] entries = Arrays.copyOf(this.cells[cell], this.cells[cell].length + 1);
+        entries[entries.length - 1] = entry;
+        this.cells[cell] = entries;
+      }
+    }
+  }
+
+  /**
+   * @return whether the segment touches the closed rectangle of the cell; the segment's bounding
+   *   box is known to overlap it, so it does unless all four corners lie on the same side
+   */
+  private boolean crossesCell(int row, int column, double longitude1, double latitude1,
+    double longitude2, double latitude2) {
+    double south = this.minLatitude + row * this.cellDegrees;
+    double west = this.minLongitude + column * this.cellDegrees;
+    double north = south + this.cellDegrees;
+    double east = west + this.cellDegrees;
+
+    int positive = 0;
+    int negative = 0;
+    for (double[] corner : new double[][] {{west, south}, {east, south}, {west, north},
+      {east, north}}) {
+      double side = (longitude2 - longitude1) * (corner[1] - latitude1)
+        - (latitude2 - latitude1) * (corner[0] - longitude1);
+      if (side > 0) {
+        positive++;
+      } else if (side < 0) {
+        negative++;
+      } else {
+        return true;
+      }
+    }
+    return positive > 0 && negative > 0;
+  }
+
+  private int row(double latitude) {
+    return Math.min(this.rows - 1, Math.max(0,
+      (int) Math.floor((latitude - this.minLatitude) / this.cellDegrees)));
+  }
+
+  private int column(double longitude) {
+    return Math.min(this.columns - 1, Math.max(0,
+      (int) Math.floor((longitude - this.minLongitude) / this.cellDegrees)));
+  }
+
+  /**
+   * @return the first zone, in file order, that contains the point, or {@code null}
+   */
+  Zone classify(double latitude, double longitude) {
+    double row = Math.floor((latitude - this.minLatitude) / this.cellDegrees);
+    double column = Math.floor((longitude - this.minLongitude) / this.cellDegrees);
+    if (!(row >= 0 && row < this.rows && column >= 0 && column < this.columns)) {
+      return null;
+    }
+    for (int entry : this.cells[(int) row * this.columns + (int) column]) {
+      var zone = this.zones.get(entry >>> 1);
+      if ((entry & COVERS_CELL) != 0 || zone.contains(latitude, longitude)) {
+        return zone;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,56 @@
+package com.assessment.postcode.zone;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Delivery zones loaded from the GeoJSON file or classpath resource at
+ * {@code postcode.zones.path} on startup, with a
+ * {@link ZoneGrid} to classify points. Zones may overlap; a point belongs to the first zone in
+ * file order that contains it. Zones are disabled when the property is empty, and a file that
+ * cannot be read stops the application from starting.
+ */
+@Component
+@Slf4j
+public class ZoneIndex {
+
+  private final List<Zone> zones;
+  private final ZoneGrid grid;
+  private final boolean enabled;
+
+  public ZoneIndex(ObjectMapper objectMapper, @Value("${postcode.zones.path:}") String path)
+    throws IOException {
+    this.enabled = path != null && !path.isBlank();
+    if (!this.enabled) {
+      this.zones = List.of();
+      this.grid = new ZoneGrid(this.zones);
+      return;
+    }
+
+    long start = System.nanoTime();
+    this.zones = List.copyOf(GeoJsonZones.read(path, objectMapper));
+    this.grid = new ZoneGrid(this.zones);
+    log.info("Loaded {} zones from {} in {} ms", this.zones.size(), path,
+      (System.nanoTime() - start) / 1_000_000);
+  }
+
+  public boolean isEnabled() {
+    return this.enabled;
+  }
+
+  public List<Zone> zones() {
+    return this.zones;
+  }
+
+  /**
+   * @return the zone containing the point, or {@code null} when it is in none
+   */
+  public Zone classify(double latitude, double longitude) {
+    return this.grid.classify(latitude, longitude);
+  }
+}
@@ -0,0 +1,91 @@
+package com.assessment.postcode.batch;
+
+import com.assessment.postcode.model.PostcodeRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LineAlignedPartitionerTest {
+
+  private static final String CSV = """
+    id,postcode,latitude,longitude
+    1,AB10 1XG,57.144165,-2.114848
+    2,AB10 6RN,57.137880,-2.121487
+
+    3,AB10 7JB,57.124274,-2.127190
+    4,AB11 5QN,57.142701,-2.093295
+    5,AB11 6UL,57.137546,-2.112233""";
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testPartition_ReadsEveryRecordOnce() throws Exception {
+    var file = Files.writeString(tempDir.resolve("postcodes.csv"), CSV);
+
+    for (int gridSize = 1; gridSize <= 8; gridSize++) {
+      var contexts = new LineAlignedPartitioner(file).partition(gridSize);
+      List<Long> ids = new ArrayList<>();
+      for (var context : contexts.values()) {
+        readAll(file, context, ids);
+      }
+
+      assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids, "gridSize " + gridSize);
+    }
+  }
+
+  @Test
+  void testPartition_RangesAreContiguousAndLineAligned() throws Exception {
+    var file = Files.writeString(tempDir.resolve("postcodes.csv"), CSV);
+    byte[] bytes = Files.readAllBytes(file);
+    long dataStart = CSV.indexOf('\n') + 1;
+
+    for (int gridSize = 1; gridSize <= 8; gridSize++) {
+      var contexts = new LineAlignedPartitioner(file).partition(gridSize);
+      long expectedStart = dataStart;
+      for (var context : contexts.values()) {
+        long start = context.getLong(LineAlignedPartitioner.START_OFFSET);
+        long end = context.getLong(LineAlignedPartitioner.END_OFFSET);
+
+        assertEquals(expectedStart, start, "gridSize " + gridSize);
+        assertTrue(end >= start, "gridSize " + gridSize);
+        assertTrue(start == bytes.length || bytes[(int) start - 1] == '\n',
+          "gridSize " + gridSize + " starts mid-line at " + start);
+        expectedStart = end;
+      }
+      assertEquals(bytes.length, expectedStart, "gridSize " + gridSize);
+    }
+  }
+
+  @Test
+  void testPartition_HeaderOnly() throws Exception {
+    var file = Files.writeString(tempDir.resolve("postcodes.csv"),
+      "id,postcode,latitude,longitude\n");
+
+    var contexts = new LineAlignedPartitioner(file).partition(4);
+
+    assertEquals(1, contexts.size());
+    var context = contexts.get("partition0");
+    assertEquals(context.getLong(LineAlignedPartitioner.END_OFFSET),
+      context.getLong(LineAlignedPartitioner.START_OFFSET));
+  }
+
+  private static void readAll(Path file, ExecutionContext context, List<Long> ids)
+    throws Exception {
+    var reader = new MappedCsvItemReader(file, context.getLong(LineAlignedPartitioner.START_OFFSET),
+      context.getLong(LineAlignedPartitioner.END_OFFSET));
+    reader.open(new ExecutionContext());
+    PostcodeRecord record;
+    while ((record = reader.read()) != null) {
+      ids.add(record.id());
+    }
+    reader.close();
+  }
+}
@@ -0,0 +1,112 @@
+package com.assessment.postcode.batch;
+
+import com.assessment.postcode.model.PostcodeRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.FlatFileParseException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedCsvItemReaderTest {
+
+  private static final String CSV = """
+    id,postcode,latitude,longitude
+    1,AB10 1XG,57.144165,-2.114848
+    2,AB10 6RN,57.137880,-2.121487
+
+    3,AB10 7JB,57.124274,-2.127190
+    4,AB11 5QN,57.142701,-2.093295
+    5,AB11 6UL,57.137546,-2.112233""";
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testRead_ParsesFields() throws Exception {
+    var file = Files.writeString(tempDir.resolve("postcodes.csv"), CSV);
+    var context = new LineAlignedPartitioner(file).partition(1).get("partition0");
+
+    var reader = new MappedCsvItemReader(file, context.getLong(LineAlignedPartitioner.START_OFFSET),
+      context.getLong(LineAlignedPartitioner.END_OFFSET));
+    reader.open(new ExecutionContext());
+    PostcodeRecord record = reader.read();
+    reader.close();
+
+    assertEquals(1L, record.id());
+    assertEquals("AB10 1XG", record.postcode());
+    assertEquals(57.144165, record.latitude());
+    assertEquals(-2.114848, record.longitude());
+  }
+
+  @Test
+  void testRead_ResumesFromSavedPosition() throws Exception {
+    var file = Files.writeString(tempDir.resolve("postcodes.csv"), CSV);
+    var context = new LineAlignedPartitioner(file).partition(1).get("partition0");
+    long start = context.getLong(LineAlignedPartitioner.START_OFFSET);
+    long end = context.getLong(LineAlignedPartitioner.END_OFFSET);
+
+    var reader = new MappedCsvItemReader(file, start, end);
+    reader.open(context);
+    reader.read();
+    reader.read();
+    reader.update(context);
+    reader.close();
+
+    var restarted = new MappedCsvItemReader(file, start, end);
+    restarted.open(context);
+    assertEquals(3L, restarted.read().id());
+    restarted.close();
+  }
+
+  @Test
+  void testRead_WholeFileSkipsHeader() throws Exception {
+    var file = Files.writeString(tempDir.resolve("postcodes.csv"),
+      "id,postcode,latitude,longitude\r\n7,\"SW1A 1AA\",51.501009,-0.141588\r\n");
+
+    var reader = new MappedCsvItemReader(file);
+    reader.open(new ExecutionContext());
+    PostcodeRecord record = reader.read();
+    PostcodeRecord last = reader.read();
+    reader.close();
+
+    assertEquals(7L, record.id());
+    assertEquals("SW1A 1AA", record.postcode());
+    assertEquals(51.501009, record.latitude());
+    assertEquals(-0.141588, record.longitude());
+    assertNull(last);
+  }
+
+  @Test
+  void testRead_CoordinatesMatchParseDouble() throws Exception {
+    var file = Files.writeString(tempDir.resolve("postcodes.csv"),
+      "id,postcode,latitude,longitude\n1,AB10 1XG,,+2.1\n2,AB10 1XG,51.5012345678901234,-0.1\n");
+
+    var reader = new MappedCsvItemReader(file);
+    reader.open(new ExecutionContext());
+    PostcodeRecord missing = reader.read();
+    PostcodeRecord precise = reader.read();
+    reader.close();
+
+    assertTrue(Double.isNaN(missing.latitude()));
+    assertEquals(2.1, missing.longitude());
+    assertEquals(Double.parseDouble("51.5012345678901234"), precise.latitude());
+    assertEquals(-0.1, precise.longitude());
+  }
+
+  @Test
+  void testRead_InvalidLine() throws Exception {
+    var file = Files.writeString(tempDir.resolve("postcodes.csv"),
+      "id,postcode,latitude,longitude\n1,AB10 1XG,57.1x,-2.1\n");
+
+    var reader = new MappedCsvItemReader(file);
+    reader.open(new ExecutionContext());
+
+    var exception = assertThrows(FlatFileParseException.class, reader::read);
+    assertEquals("1,AB10 1XG,57.1x,-2.1", exception.getInput());
+    reader.close();
+  }
+}
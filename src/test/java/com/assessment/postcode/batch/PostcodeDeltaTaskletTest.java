@@ -0,0 +1,128 @@
+package com.assessment.postcode.batch;
+
+import com.assessment.postcode.index.PostcodeKeys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostcodeDeltaTaskletTest {
+
+  private EmbeddedDatabase database;
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void setUp() {
+    database = new EmbeddedDatabaseBuilder()
+      .setType(EmbeddedDatabaseType.H2)
+      .generateUniqueName(true)
+      .build();
+    jdbcTemplate = new JdbcTemplate(database);
+    jdbcTemplate.execute("CREATE TABLE UK_POSTCODE (ID BIGINT PRIMARY KEY, "
+      + "POSTCODE VARCHAR(255) NOT NULL UNIQUE, POSTCODE_KEY BIGINT NOT NULL UNIQUE, "
+      + "LATITUDE DOUBLE, LONGITUDE DOUBLE)");
+    insert("UK_POSTCODE", 1, "AB10 1XG", 57.144165, -2.114848);
+    insert("UK_POSTCODE", 2, "AB10 6RN", 57.137880, -2.121487);
+    insert("UK_POSTCODE", 3, "AB10 7JB", 57.124274, -2.127190);
+    insert("UK_POSTCODE", 4, "AB11 5QN", null, null);
+    insert("UK_POSTCODE", 5, "AB11 6UL", 57.137546, -2.112233);
+  }
+
+  @AfterEach
+  void tearDown() {
+    database.shutdown();
+  }
+
+  @Test
+  void testExecute_AppliesOnlyTheDifferences() throws Exception {
+    run(new StagingTableTasklet(jdbcTemplate));
+    // 1 unchanged, 2 moved, 3 terminated, 4 gained coordinates, 5 reassigned, 6 new
+    insert(StagingTableTasklet.STAGING_TABLE, 1, "AB10 1XG", 57.144165, -2.114848);
+    insert(StagingTableTasklet.STAGING_TABLE, 2, "AB10 6RN", 57.2, -2.2);
+    insert(StagingTableTasklet.STAGING_TABLE, 4, "AB11 5QN", 57.142701, -2.093295);
+    insert(StagingTableTasklet.STAGING_TABLE, 5, "AB12 3CD", 57.1, -2.1);
+    insert(StagingTableTasklet.STAGING_TABLE, 6, "AB11 6UL", 57.137546, -2.112233);
+
+    var stepExecution = run(new PostcodeDeltaTasklet(jdbcTemplate));
+
+    var context = stepExecution.getExecutionContext();
+    assertEquals(2, context.getInt(PostcodeDeltaTasklet.DELETED));
+    assertEquals(2, context.getInt(PostcodeDeltaTasklet.UPDATED));
+    assertEquals(2, context.getInt(PostcodeDeltaTasklet.INSERTED));
+    assertEquals(6, stepExecution.getWriteCount());
+    assertEquals(rows(StagingTableTasklet.STAGING_TABLE), rows("UK_POSTCODE"));
+  }
+
+  @Test
+  void testExecute_SameFileChangesNothing() throws Exception {
+    run(new StagingTableTasklet(jdbcTemplate));
+    jdbcTemplate.update("INSERT INTO " + StagingTableTasklet.STAGING_TABLE
+      + " SELECT * FROM UK_POSTCODE");
+
+    var stepExecution = run(new PostcodeDeltaTasklet(jdbcTemplate));
+
+    assertEquals(0, stepExecution.getWriteCount());
+    assertEquals(5, rows("UK_POSTCODE").size());
+  }
+
+  @Test
+  void testStagingTable_EmptiedOnEveryRun() throws Exception {
+    run(new StagingTableTasklet(jdbcTemplate));
+    insert(StagingTableTasklet.STAGING_TABLE, 1, "AB10 1XG", 57.144165, -2.114848);
+
+    run(new StagingTableTasklet(jdbcTemplate));
+
+    assertTrue(rows(StagingTableTasklet.STAGING_TABLE).isEmpty());
+  }
+
+  @Test
+  void testStagingTable_FollowsLiveSchema() throws Exception {
+    run(new StagingTableTasklet(jdbcTemplate));
+    jdbcTemplate.execute("ALTER TABLE UK_POSTCODE ALTER COLUMN POSTCODE VARCHAR(16)");
+
+    run(new StagingTableTasklet(jdbcTemplate));
+
+    assertEquals(columns("UK_POSTCODE"), columns(StagingTableTasklet.STAGING_TABLE));
+    insert(StagingTableTasklet.STAGING_TABLE, 1, "AB10 1XG", 57.144165, -2.114848);
+    assertThrows(DataIntegrityViolationException.class,
+      () -> insert(StagingTableTasklet.STAGING_TABLE, 1, "AB10 6RN", 57.2, -2.2));
+  }
+
+  private StepExecution run(Tasklet tasklet) throws Exception {
+    var stepExecution = new StepExecution("step", new JobExecution(1L));
+    var contribution = new StepContribution(stepExecution);
+    tasklet.execute(contribution, new ChunkContext(new StepContext(stepExecution)));
+    stepExecution.apply(contribution);
+    return stepExecution;
+  }
+
+  private void insert(String table, long id, String postcode, Double latitude, Double longitude) {
+    jdbcTemplate.update("INSERT INTO " + table
+        + " (ID, POSTCODE, POSTCODE_KEY, LATITUDE, LONGITUDE) VALUES (?, ?, ?, ?, ?)",
+      id, postcode, PostcodeKeys.key(postcode), latitude, longitude);
+  }
+
+  private List<Map<String, Object>> columns(String table) {
+    return jdbcTemplate.queryForList("SELECT COLUMN_NAME, DATA_TYPE, CHARACTER_MAXIMUM_LENGTH "
+      + "FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = ? ORDER BY ORDINAL_POSITION", table);
+  }
+
+  private List<Map<String, Object>> rows(String table) {
+    return jdbcTemplate.queryForList("SELECT * FROM " + table + " ORDER BY ID");
+  }
+}
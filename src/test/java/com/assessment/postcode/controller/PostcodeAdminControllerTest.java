@@ -0,0 +1,189 @@
+package com.assessment.postcode.controller;
+
+import com.assessment.postcode.cache.DistanceCache;
+import com.assessment.postcode.cache.PostcodeCache;
+import com.assessment.postcode.model.ImportApiRq;
+import com.assessment.postcode.model.ImportApiRs;
+import com.assessment.postcode.model.ImportStepApiRs;
+import com.assessment.postcode.model.ZoneAssignmentApiRq;
+import com.assessment.postcode.model.ZoneAssignmentApiRs;
+import com.assessment.postcode.service.CoalescingPostcodeLoader;
+import com.assessment.postcode.service.PostcodeImportService;
+import com.assessment.postcode.service.ZoneService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(PostcodeAdminController.class)
+class PostcodeAdminControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+  @MockitoBean
+  private PostcodeCache postcodeCache;
+  @MockitoBean
+  private DistanceCache distanceCache;
+  @MockitoBean
+  private PostcodeImportService postcodeImportService;
+  @MockitoBean
+  private ZoneService zoneService;
+  @MockitoBean
+  private CoalescingPostcodeLoader postcodeLoader;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private static final String CSV_PATH = "./ukpostcodes.csv";
+
+  @TestConfiguration
+  static class MetricsConfiguration {
+
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {"ADMIN"})
+  void testGetLookupStats() throws Exception {
+    when(postcodeLoader.stats()).thenReturn(new CoalescingPostcodeLoader.Stats(100, 40, 50, 12));
+
+    mockMvc.perform(get("/api/v1/admin/postcodes/lookups"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.loads").value(100))
+      .andExpect(jsonPath("$.coalesced").value(40))
+      .andExpect(jsonPath("$.batched").value(50))
+      .andExpect(jsonPath("$.queries").value(12));
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {"ADMIN"})
+  void testStartImport_Accepted() throws Exception {
+    var apiRq = ImportApiRq.builder().csvPath(CSV_PATH).build();
+    when(postcodeImportService.startImport(apiRq)).thenReturn(ImportApiRs.builder()
+      .executionId(7)
+      .jobName("incrementalImportJob")
+      .csvPath(CSV_PATH)
+      .status("STARTED")
+      .steps(List.of())
+      .build());
+
+    mockMvc.perform(post("/api/v1/admin/postcodes/imports")
+        .with(csrf())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(apiRq)))
+      .andExpect(status().isAccepted())
+      .andExpect(jsonPath("$.executionId").value(7))
+      .andExpect(jsonPath("$.status").value("STARTED"));
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {"ADMIN"})
+  void testStartImport_AlreadyRunning() throws Exception {
+    var apiRq = ImportApiRq.builder().csvPath(CSV_PATH).build();
+    when(postcodeImportService.startImport(apiRq)).thenThrow(
+      new ResponseStatusException(HttpStatus.CONFLICT, "An import is already running"));
+
+    mockMvc.perform(post("/api/v1/admin/postcodes/imports")
+        .with(csrf())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(apiRq)))
+      .andExpect(status().isConflict())
+      .andExpect(content().string("An import is already running"));
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {"ADMIN"})
+  void testGetImport_Progress() throws Exception {
+    when(postcodeImportService.getImport(7)).thenReturn(ImportApiRs.builder()
+      .executionId(7)
+      .status("COMPLETED")
+      .updated(12)
+      .steps(List.of(ImportStepApiRs.builder()
+        .name("stagingStep")
+        .status("COMPLETED")
+        .readCount(1000)
+        .writeCount(998)
+        .filterCount(2)
+        .build()))
+      .build());
+
+    mockMvc.perform(get("/api/v1/admin/postcodes/imports/7"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.updated").value(12))
+      .andExpect(jsonPath("$.steps[0].writeCount").value(998));
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {"ADMIN"})
+  void testGetImport_NotFound() throws Exception {
+    when(postcodeImportService.getImport(8)).thenThrow(
+      new ResponseStatusException(HttpStatus.NOT_FOUND, "Import Not Found"));
+
+    mockMvc.perform(get("/api/v1/admin/postcodes/imports/8"))
+      .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {"ADMIN"})
+  void testStartZoneAssignment_Accepted() throws Exception {
+    var apiRq = ZoneAssignmentApiRq.builder().partitions(2L).build();
+    when(zoneService.startAssignment(apiRq)).thenReturn(ZoneAssignmentApiRs.builder()
+      .executionId(9)
+      .status("STARTED")
+      .build());
+
+    mockMvc.perform(post("/api/v1/admin/postcodes/zone-assignments")
+        .with(csrf())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(apiRq)))
+      .andExpect(status().isAccepted())
+      .andExpect(jsonPath("$.executionId").value(9));
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {"ADMIN"})
+  void testStartZoneAssignment_ImportRunning() throws Exception {
+    when(zoneService.startAssignment(null)).thenThrow(
+      new ResponseStatusException(HttpStatus.CONFLICT, "An import is running"));
+
+    mockMvc.perform(post("/api/v1/admin/postcodes/zone-assignments").with(csrf()))
+      .andExpect(status().isConflict())
+      .andExpect(content().string("An import is running"));
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {"ADMIN"})
+  void testGetZoneAssignment_Progress() throws Exception {
+    when(zoneService.getAssignment(9)).thenReturn(ZoneAssignmentApiRs.builder()
+      .executionId(9)
+      .status("COMPLETED")
+      .readCount(1000)
+      .assignedCount(40)
+      .unassignedCount(960)
+      .build());
+
+    mockMvc.perform(get("/api/v1/admin/postcodes/zone-assignments/9"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.assignedCount").value(40))
+      .andExpect(jsonPath("$.unassignedCount").value(960));
+  }
+}
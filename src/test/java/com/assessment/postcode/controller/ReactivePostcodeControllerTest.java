@@ -0,0 +1,97 @@
+package com.assessment.postcode.controller;
+
+import com.assessment.postcode.dto.UkPostcodeDto;
+import com.assessment.postcode.model.DistanceApiRs;
+import com.assessment.postcode.model.GetDistanceApiRs;
+import com.assessment.postcode.service.PostcodeService;
+import com.assessment.postcode.service.ReactivePostcodeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ReactivePostcodeController.class,
+  properties = "postcode.index.enabled=false")
+@Import(ReactivePostcodeService.class)
+class ReactivePostcodeControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+  @MockitoBean
+  private PostcodeService postcodeService;
+
+  private static final String POSTCODE_1 = "SW1A 1AA";
+
+  @TestConfiguration
+  static class MetricsConfiguration {
+
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {"ADMIN"})
+  void testQueryUkPostcode_Success() throws Exception {
+    when(postcodeService.getByPostcode(POSTCODE_1)).thenReturn(
+      new UkPostcodeDto(1, POSTCODE_1, 51.5074, -0.1278));
+
+    var result = mockMvc.perform(get("/api/v1/postcodes/uk/async/" + POSTCODE_1))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.postcode").value(POSTCODE_1))
+      .andExpect(jsonPath("$.latitude").value(51.5074));
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {"ADMIN"})
+  void testQueryUkPostcode_NotFound() throws Exception {
+    when(postcodeService.getByPostcode("XXX"))
+      .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Entity Not Found"));
+
+    var result = mockMvc.perform(get("/api/v1/postcodes/uk/async/XXX"))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+      .andExpect(status().isNotFound())
+      .andExpect(content().string("Entity Not Found"));
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {"ADMIN"})
+  void testGetPostcodesDistance_Success() throws Exception {
+    var distanceRs = new GetDistanceApiRs();
+    distanceRs.setDistance(new DistanceApiRs("km", 5.0));
+    when(postcodeService.constructPostcodesDistance(POSTCODE_1, "SW1A 2AA", null))
+      .thenReturn(distanceRs);
+
+    var result = mockMvc.perform(get("/api/v1/postcodes/uk/async/distance")
+        .param("postcode_1", POSTCODE_1)
+        .param("postcode_2", "SW1A 2AA"))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.distance.value").value(5.0));
+  }
+}
@@ -1,14 +1,26 @@
 package com.assessment.postcode.controller;
 
 import com.assessment.postcode.dto.UkPostcodeDto;
+import com.assessment.postcode.model.BatchLookupApiRq;
 import com.assessment.postcode.model.DistanceApiRs;
+import com.assessment.postcode.model.CoordinatesRq;
+import com.assessment.postcode.model.DistanceMatrixApiRq;
+import com.assessment.postcode.model.DistanceMode;
+import com.assessment.postcode.model.PostcodeDistanceRs;
+import com.assessment.postcode.model.ReverseGeocodeApiRq;
 import com.assessment.postcode.model.GetDistanceApiRs;
 import com.assessment.postcode.model.UpdateCoordApiRq;
+import com.assessment.postcode.service.DistanceMatrix;
+import com.assessment.postcode.service.PostcodeBatchLookup;
 import com.assessment.postcode.service.PostcodeService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -16,14 +28,17 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.math.BigDecimal;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 
@@ -32,20 +47,31 @@ class UkPostcodeControllerTest {
 
   @Autowired
   private MockMvc mockMvc;
+  @Autowired
+  private MeterRegistry meterRegistry;
   @MockitoBean
   private PostcodeService postcodeService;
 
   private final ObjectMapper objectMapper = new ObjectMapper();
   private static final String POSTCODE_1 = "SW1A 1AA";
 
+  @TestConfiguration
+  static class MetricsConfiguration {
+
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+
   @Test
   @WithMockUser(username = "user", roles = {"ADMIN"})
   void testGetPostcodesDistance_Success() throws Exception {
     var distanceRs = new GetDistanceApiRs();
-    var distance = new DistanceApiRs("km", new BigDecimal("5.0"));
+    var distance = new DistanceApiRs("km", 5.0);
     distanceRs.setDistance(distance);
 
-    when(postcodeService.constructPostcodesDistance(POSTCODE_1, POSTCODE_1))
+    when(postcodeService.constructPostcodesDistance(POSTCODE_1, POSTCODE_1, null))
       .thenReturn(distanceRs);
 
     mockMvc.perform(get("/api/v1/postcodes/uk/distance")
@@ -57,10 +83,28 @@ class UkPostcodeControllerTest {
       .andExpect(jsonPath("$.distance.value").value(5.0));
   }
 
+  @Test
+  @WithMockUser(username = "user", roles = {"ADMIN"})
+  void testGetPostcodesDistance_FastMode() throws Exception {
+    var distanceRs = GetDistanceApiRs.builder()
+      .distance(new DistanceApiRs("km", 5.0))
+      .mode("fast")
+      .build();
+    when(postcodeService.constructPostcodesDistance(POSTCODE_1, POSTCODE_1, "fast"))
+      .thenReturn(distanceRs);
+
+    mockMvc.perform(get("/api/v1/postcodes/uk/distance")
+        .param("postcode_1", POSTCODE_1)
+        .param("postcode_2", POSTCODE_1)
+        .param("mode", "fast"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.mode").value("fast"));
+  }
+
   @Test
   @WithMockUser(username = "user", roles = {"ADMIN"})
   void testGetPostcodesDistance_BadRequest() throws Exception {
-    when(postcodeService.constructPostcodesDistance(any(), any()))
+    when(postcodeService.constructPostcodesDistance(any(), any(), any()))
       .thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid postcodes"));
 
     mockMvc.perform(get("/api/v1/postcodes/uk/distance")
@@ -87,11 +131,18 @@ class UkPostcodeControllerTest {
   void testQueryUkPostcode_NotFound() throws Exception {
     when(postcodeService.getByPostcode("XXX"))
       .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Not found"));
+    double before = notFoundCount();
 
     mockMvc.perform(get("/api/v1/postcodes/uk/XXX")
         .with(user("admin").roles("ADMIN")))
       .andExpect(status().isNotFound())
       .andExpect(content().string("Not found"));
+    assertEquals(before + 1, notFoundCount());
+  }
+
+  private double notFoundCount() {
+    var counter = meterRegistry.find("postcode.api.errors").tag("status", "404").counter();
+    return counter == null ? 0 : counter.count();
   }
 
   @Test
@@ -101,11 +152,10 @@ class UkPostcodeControllerTest {
     dto.setPostcode(POSTCODE_1);
 
     var rq = new UpdateCoordApiRq();
-    rq.setLatitude(new BigDecimal("51.5074"));
-    rq.setLongitude(new BigDecimal("-0.1278"));
+    rq.setLatitude(51.5074);
+    rq.setLongitude(-0.1278);
 
-    when(postcodeService.updateCoordinatesByPostcode(POSTCODE_1, new BigDecimal("51.5074"),
-      new BigDecimal("-0.1278")))
+    when(postcodeService.updateCoordinatesByPostcode(POSTCODE_1, 51.5074, -0.1278))
       .thenReturn(dto);
 
     mockMvc.perform(patch("/api/v1/postcodes/uk/SW1A 1AA/coordinates")
@@ -121,8 +171,8 @@ class UkPostcodeControllerTest {
   @WithMockUser(username = "admin", roles = {"ADMIN"})
   void testUpdateTrxDesc_BadRequest() throws Exception {
     var rq = new UpdateCoordApiRq();
-    rq.setLatitude(new BigDecimal("100.0"));
-    rq.setLongitude(new BigDecimal("-0.1278"));
+    rq.setLatitude(100.0);
+    rq.setLongitude(-0.1278);
 
     when(postcodeService.updateCoordinatesByPostcode(any(), any(), any()))
       .thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid coordinates"));
@@ -135,4 +185,108 @@ class UkPostcodeControllerTest {
       .andExpect(status().isBadRequest())
       .andExpect(content().string("Invalid coordinates"));
   }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {"ADMIN"})
+  void testGetDistanceMatrix_Success() throws Exception {
+    var origins = List.of(POSTCODE_1, "SW1A 2AA");
+    var destinations = List.of(POSTCODE_1);
+    var matrix = new DistanceMatrix(DistanceMode.EXACT, origins, new double[] {51.5074, 40.5074},
+      new double[] {-0.1278, -1.1278}, destinations, new double[] {51.5074},
+      new double[] {-0.1278});
+
+    when(postcodeService.constructDistanceMatrix(origins, destinations, null)).thenReturn(matrix);
+
+    var result = mockMvc.perform(post("/api/v1/postcodes/uk/distance/matrix")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(new DistanceMatrixApiRq(origins, destinations)))
+        .with(csrf())
+      )
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.unit").value("km"))
+      .andExpect(jsonPath("$.mode").value("exact"))
+      .andExpect(jsonPath("$.origins[1]").value("SW1A 2AA"))
+      .andExpect(jsonPath("$.rows[0][0]").value(0.0))
+      .andExpect(jsonPath("$.rows[1][0]").value(1225.5484327780487));
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {"ADMIN"})
+  void testGetDistanceMatrix_NotFound() throws Exception {
+    when(postcodeService.constructDistanceMatrix(any(), any(), any()))
+      .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Entity Not Found: XXX"));
+
+    mockMvc.perform(post("/api/v1/postcodes/uk/distance/matrix")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(
+          new DistanceMatrixApiRq(List.of("XXX"), List.of(POSTCODE_1))))
+        .with(csrf())
+      )
+      .andExpect(status().isNotFound())
+      .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+      .andExpect(content().string("Entity Not Found: XXX"));
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {"ADMIN"})
+  void testLookupPostcodes_StreamsNdjson() throws Exception {
+    var postcodes = List.of("sw1a1aa", "ZZ99 9ZZ");
+    var dto = new UkPostcodeDto(1, POSTCODE_1, 51.5074, -0.1278);
+    when(postcodeService.lookupPostcodes(postcodes)).thenReturn(
+      new PostcodeBatchLookup(postcodes, null, keys -> List.of(dto)));
+
+    var result = mockMvc.perform(post("/api/v1/postcodes/uk/lookup")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(new BatchLookupApiRq(postcodes)))
+        .with(csrf())
+      )
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+      .andExpect(status().isOk())
+      .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+      .andExpect(content().string("""
+        {"query":"sw1a1aa","found":true,"postcode":{"id":1,"postcode":"SW1A 1AA",\
+        "latitude":51.5074,"longitude":-0.1278}}
+        {"query":"ZZ99 9ZZ","found":false}
+        """));
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {"ADMIN"})
+  void testReverseGeocode_Success() throws Exception {
+    var dto = new UkPostcodeDto();
+    dto.setPostcode(POSTCODE_1);
+
+    when(postcodeService.reverseGeocode(51.501, -0.141))
+      .thenReturn(new PostcodeDistanceRs(dto, new DistanceApiRs("km", 0.1)));
+
+    mockMvc.perform(get("/api/v1/postcodes/uk/reverse")
+        .param("latitude", "51.501")
+        .param("longitude", "-0.141"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.postcode.postcode").value(POSTCODE_1))
+      .andExpect(jsonPath("$.distance.value").value(0.1));
+  }
+
+  @Test
+  @WithMockUser(username = "admin", roles = {"ADMIN"})
+  void testReverseGeocodeBatch_BadRequest() throws Exception {
+    when(postcodeService.reverseGeocode(any()))
+      .thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid coordinates"));
+
+    mockMvc.perform(post("/api/v1/postcodes/uk/reverse")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(
+          new ReverseGeocodeApiRq(List.of(new CoordinatesRq(100.0, 0.0)))))
+        .with(csrf())
+      )
+      .andExpect(status().isBadRequest())
+      .andExpect(content().string("Invalid coordinates"));
+  }
 }
@@ -0,0 +1,121 @@
+package com.assessment.postcode.controller;
+
+import com.assessment.postcode.dto.UkPostcodeDto;
+import com.assessment.postcode.model.ZoneApiRs;
+import com.assessment.postcode.model.ZoneClassificationApiRs;
+import com.assessment.postcode.model.ZonesApiRs;
+import com.assessment.postcode.service.ZoneService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ZoneController.class)
+class ZoneControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+  @Autowired
+  private MeterRegistry meterRegistry;
+  @MockitoBean
+  private ZoneService zoneService;
+
+  private static final String POSTCODE_1 = "AB10 1XG";
+
+  @TestConfiguration
+  static class MetricsConfiguration {
+
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+
+  @Test
+  @WithMockUser(username = "user", roles = {"ADMIN"})
+  void testClassify_Postcode() throws Exception {
+    var postcode = UkPostcodeDto.builder().postcode(POSTCODE_1).build();
+    when(zoneService.classify(POSTCODE_1, null, null)).thenReturn(ZoneClassificationApiRs.builder()
+      .postcode(postcode)
+      .latitude(57.144165)
+      .longitude(-2.114847)
+      .zoneId("ABD-CENTRE")
+      .zoneName("Aberdeen city centre")
+      .build());
+
+    mockMvc.perform(get("/api/v1/postcodes/uk/zone").param("postcode", POSTCODE_1))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.postcode.postcode").value(POSTCODE_1))
+      .andExpect(jsonPath("$.zoneId").value("ABD-CENTRE"));
+  }
+
+  @Test
+  @WithMockUser(username = "user", roles = {"ADMIN"})
+  void testClassify_Point() throws Exception {
+    when(zoneService.classify(null, 51.5, -0.12)).thenReturn(ZoneClassificationApiRs.builder()
+      .latitude(51.5)
+      .longitude(-0.12)
+      .build());
+
+    mockMvc.perform(get("/api/v1/postcodes/uk/zone")
+        .param("latitude", "51.5")
+        .param("longitude", "-0.12"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.latitude").value(51.5))
+      .andExpect(jsonPath("$.zoneId").doesNotExist());
+  }
+
+  @Test
+  @WithMockUser(username = "user", roles = {"ADMIN"})
+  void testClassify_BadRequest() throws Exception {
+    when(zoneService.classify(null, 51.5, null)).thenThrow(
+      new ResponseStatusException(HttpStatus.BAD_REQUEST,
+        "Either postcode or latitude and longitude must be provided."));
+
+    mockMvc.perform(get("/api/v1/postcodes/uk/zone").param("latitude", "51.5"))
+      .andExpect(status().isBadRequest())
+      .andExpect(content().string("Either postcode or latitude and longitude must be provided."));
+  }
+
+  @Test
+  @WithMockUser(username = "user", roles = {"ADMIN"})
+  void testGetZones() throws Exception {
+    when(zoneService.getZones()).thenReturn(ZonesApiRs.builder()
+      .zones(List.of(ZoneApiRs.builder().id("ABD-CENTRE").name("Aberdeen city centre")
+        .postcodes(12L).build()))
+      .build());
+
+    mockMvc.perform(get("/api/v1/postcodes/uk/zones"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.zones[0].id").value("ABD-CENTRE"))
+      .andExpect(jsonPath("$.zones[0].postcodes").value(12));
+  }
+
+  @Test
+  @WithMockUser(username = "user", roles = {"ADMIN"})
+  void testGetZones_NotConfigured() throws Exception {
+    when(zoneService.getZones()).thenThrow(
+      new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Zones are not configured"));
+
+    mockMvc.perform(get("/api/v1/postcodes/uk/zones"))
+      .andExpect(status().isServiceUnavailable())
+      .andExpect(content().string("Zones are not configured"));
+    assertEquals(1.0, meterRegistry.get("postcode.api.errors").tag("status", "503").counter()
+      .count());
+  }
+}
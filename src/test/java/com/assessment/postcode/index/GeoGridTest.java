@@ -0,0 +1,92 @@
+package com.assessment.postcode.index;
+
+import com.assessment.postcode.service.GeoDistance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoGridTest {
+
+  private HeapSlotStore store;
+  private GeoGrid grid;
+
+  @BeforeEach
+  void setUp() {
+    var random = new Random(42);
+    var packed = new long[5000];
+    for (int i = 0; i < packed.length; i++) {
+      packed[i] = FixedPoint.pack(FixedPoint.toMicros(51 + random.nextDouble() * 2),
+        FixedPoint.toMicros(-2 + random.nextDouble() * 2));
+    }
+    packed[0] = FixedPoint.pack(FixedPoint.NONE, FixedPoint.NONE);
+    store = new HeapSlotStore(new long[packed.length], new long[packed.length], packed);
+    grid = new GeoGrid(store);
+  }
+
+  @Test
+  void testWithinRadius_MatchesBruteForce() {
+    var matches = grid.withinRadius(52.0, -1.0, 5, Integer.MAX_VALUE);
+
+    int[] expected = IntStream.range(0, store.size())
+      .filter(slot -> distance(slot, 52.0, -1.0) <= 5)
+      .sorted()
+      .toArray();
+    int[] actual = matches.stream().mapToInt(GeoGrid.Neighbour::slot).sorted().toArray();
+    assertArrayEquals(expected, actual);
+    assertTrue(expected.length > 0);
+    for (int i = 1; i < matches.size(); i++) {
+      assertTrue(matches.get(i - 1).distanceKm() <= matches.get(i).distanceKm());
+    }
+  }
+
+  @Test
+  void testWithinRadius_Limit() {
+    assertEquals(3, grid.withinRadius(52.0, -1.0, 5, 3).size());
+  }
+
+  @Test
+  void testNearest_MatchesBruteForce() {
+    for (double[] point : new double[][] {{52.0, -1.0}, {51.0, -2.0}, {55.0, 1.0}}) {
+      var nearest = grid.nearest(point[0], point[1], 10);
+
+      int[] expected = IntStream.range(1, store.size()).boxed()
+        .sorted(Comparator.comparingDouble(slot -> distance(slot, point[0], point[1])))
+        .limit(10)
+        .mapToInt(Integer::intValue)
+        .toArray();
+      assertArrayEquals(expected, nearest.stream().mapToInt(GeoGrid.Neighbour::slot).toArray(),
+        Arrays.toString(point));
+    }
+  }
+
+  @Test
+  void testMove_UpdatesQueries() {
+    long previous = store.coordinates(10);
+    long moved = FixedPoint.pack(FixedPoint.toMicros(58.5), FixedPoint.toMicros(-4.0));
+
+    grid.addToCell(10, moved);
+    store.getAndSetCoordinates(10, moved);
+    grid.removeFromCell(10, previous);
+
+    List<GeoGrid.Neighbour> nearest = grid.nearest(58.5, -4.0, 1);
+    assertEquals(10, nearest.get(0).slot());
+    assertEquals(0.0, nearest.get(0).distanceKm(), 1e-9);
+    assertTrue(grid.withinRadius(FixedPoint.toDegrees(FixedPoint.latitudeMicros(previous)),
+      FixedPoint.toDegrees(FixedPoint.longitudeMicros(previous)), 0.001, 10)
+      .stream().noneMatch(n -> n.slot() == 10));
+  }
+
+  private double distance(int slot, double latitude, double longitude) {
+    long packed = store.coordinates(slot);
+    return GeoDistance.haversineKm(latitude, longitude,
+      FixedPoint.toDegrees(FixedPoint.latitudeMicros(packed)),
+      FixedPoint.toDegrees(FixedPoint.longitudeMicros(packed)));
+  }
+}
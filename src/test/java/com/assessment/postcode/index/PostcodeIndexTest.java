@@ -0,0 +1,292 @@
+package com.assessment.postcode.index;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostcodeIndexTest {
+
+  private EmbeddedDatabase database;
+  private JdbcTemplate jdbcTemplate;
+  private PostcodeIndex postcodeIndex;
+
+  @TempDir
+  Path tempDir;
+
+  @BeforeEach
+  void setUp() {
+    database = new EmbeddedDatabaseBuilder()
+      .setType(EmbeddedDatabaseType.H2)
+      .generateUniqueName(true)
+      .build();
+    jdbcTemplate = new JdbcTemplate(database);
+    jdbcTemplate.execute("CREATE TABLE UK_POSTCODE (ID BIGINT PRIMARY KEY, "
+      + "POSTCODE VARCHAR(255) UNIQUE, POSTCODE_KEY BIGINT UNIQUE, LATITUDE DOUBLE, "
+      + "LONGITUDE DOUBLE)");
+    insert(2, "AB10 6RN", 57.137880, -2.121487);
+    insert(1, "AB10 1XG", 57.144165, -2.114848);
+    insert(3, "AB10 7JB", 57.124274, -2.127190);
+    insert(4, "AB1 0AA", 57.1, -2.1);
+    insert(5, "AB11 5QN", 57.142701, -2.093295);
+    postcodeIndex = new PostcodeIndex(jdbcTemplate, true, null, "heap");
+  }
+
+  @AfterEach
+  void tearDown() {
+    database.shutdown();
+  }
+
+  @Test
+  void testSnapshot_NotLoaded() {
+    assertNull(postcodeIndex.snapshot());
+  }
+
+  @Test
+  void testReload_Disabled() {
+    var disabled = new PostcodeIndex(jdbcTemplate, false, null, "heap");
+    disabled.reload();
+
+    assertNull(disabled.snapshot());
+  }
+
+  @Test
+  void testSlotOf_Found() {
+    postcodeIndex.reload();
+    var snapshot = postcodeIndex.snapshot();
+
+    assertEquals(5, snapshot.size());
+    var dto = snapshot.toDto(snapshot.slotOf("AB10 6RN"));
+    assertEquals(2, dto.getId());
+    assertEquals("AB10 6RN", dto.getPostcode());
+    assertEquals(57.13788, dto.getLatitude());
+    assertEquals(-2.121487, dto.getLongitude());
+  }
+
+  @Test
+  void testSlotOf_AnyCaseAndSpacing() {
+    postcodeIndex.reload();
+    var snapshot = postcodeIndex.snapshot();
+
+    int slot = snapshot.slotOf("AB10 6RN");
+    assertEquals(slot, snapshot.slotOf("ab106rn"));
+    assertEquals(slot, snapshot.slotOf(" AB10  6RN "));
+  }
+
+  @Test
+  void testRange_OutcodeAndSector() {
+    postcodeIndex.reload();
+    var snapshot = postcodeIndex.snapshot();
+
+    var outcode = PostcodeKeys.outcodeRange("AB10");
+    var postcodes = new ArrayList<String>();
+    for (int slot = snapshot.rangeStart(outcode); slot < snapshot.rangeEnd(outcode); slot++) {
+      postcodes.add(snapshot.postcode(slot));
+    }
+    assertEquals(List.of("AB10 1XG", "AB10 6RN", "AB10 7JB"), postcodes);
+
+    var sector = PostcodeKeys.sectorRange("ab10 6");
+    assertEquals(1, snapshot.rangeEnd(sector) - snapshot.rangeStart(sector));
+    var empty = PostcodeKeys.outcodeRange("AB12");
+    assertEquals(snapshot.rangeStart(empty), snapshot.rangeEnd(empty));
+  }
+
+  @Test
+  void testSlotOf_NotFound() {
+    postcodeIndex.reload();
+    var snapshot = postcodeIndex.snapshot();
+
+    assertEquals(-1, snapshot.slotOf("ZZ99 9ZZ"));
+    assertEquals(-1, snapshot.slotOf("TOO LONG POSTCODE"));
+    assertEquals(-1, snapshot.slotOf(""));
+  }
+
+  @Test
+  void testUpdateCoordinates() {
+    postcodeIndex.reload();
+    postcodeIndex.updateCoordinates("AB10 7JB", 58.0, 1.0);
+    var snapshot = postcodeIndex.snapshot();
+
+    var dto = snapshot.toDto(snapshot.slotOf("AB10 7JB"));
+    assertEquals(58.0, dto.getLatitude());
+    assertEquals(1.0, dto.getLongitude());
+  }
+
+  @Test
+  void testOffHeap_SameAnswersAsHeap() {
+    postcodeIndex.reload();
+    var offHeap = new PostcodeIndex(jdbcTemplate, true, null, "off-heap");
+    offHeap.reload();
+    offHeap.updateCoordinates("AB10 7JB", 58.0, 1.0);
+    var heapSnapshot = postcodeIndex.snapshot();
+    var snapshot = offHeap.snapshot();
+
+    assertEquals(heapSnapshot.size(), snapshot.size());
+    for (int slot = 0; slot < snapshot.size(); slot++) {
+      assertEquals(heapSnapshot.postcode(slot), snapshot.postcode(slot));
+      assertEquals(heapSnapshot.id(slot), snapshot.id(slot));
+    }
+    assertEquals(-1, snapshot.slotOf("ZZ99 9ZZ"));
+    assertEquals(58.0, snapshot.toDto(snapshot.slotOf("AB10 7JB")).getLatitude());
+    assertEquals("AB10 7JB", snapshot.postcode(snapshot.nearest(58.0, 1.0, 1).get(0).slot()));
+  }
+
+  @Test
+  void testOffHeap_UnknownStorage() {
+    assertThrows(IllegalArgumentException.class,
+      () -> new PostcodeIndex(jdbcTemplate, true, null, "disk"));
+  }
+
+  @Test
+  void testSnapshotFile_LoadedOffHeap() {
+    var path = tempDir.resolve("index.bin");
+    var written = new PostcodeIndex(jdbcTemplate, true, path.toString(), "heap");
+    written.reload();
+    written.writeSnapshotFile(42L);
+
+    var restored = new PostcodeIndex(jdbcTemplate, true, path.toString(), "off-heap");
+    restored.loadOnStartup();
+    restored.updateCoordinates("AB10 7JB", 58.0, 1.0);
+    var snapshot = restored.snapshot();
+
+    assertEquals(5, snapshot.size());
+    assertEquals(2, snapshot.id(snapshot.slotOf("AB10 6RN")));
+    assertEquals(-2.114848, snapshot.toDto(snapshot.slotOf("AB10 1XG")).getLongitude());
+    assertEquals(58.0, snapshot.toDto(snapshot.slotOf("AB10 7JB")).getLatitude());
+  }
+
+  @Test
+  void testSnapshotFile_LoadedOnStartup() throws Exception {
+    var path = tempDir.resolve("index.bin");
+    var written = new PostcodeIndex(jdbcTemplate, true, path.toString(), "heap");
+    written.reload();
+    written.updateCoordinates("AB10 7JB", 58.0, 1.0);
+    written.writeSnapshotFile(42L);
+    // rows the file does not know about must not be served
+    jdbcTemplate.update("UPDATE UK_POSTCODE SET LATITUDE = 0");
+
+    var restored = new PostcodeIndex(jdbcTemplate, true, path.toString(), "heap");
+    restored.loadOnStartup();
+    var snapshot = restored.snapshot();
+
+    assertEquals(5, snapshot.size());
+    assertEquals(58.0, snapshot.toDto(snapshot.slotOf("AB10 7JB")).getLatitude());
+    assertEquals(57.13788, snapshot.toDto(snapshot.slotOf("AB10 6RN")).getLatitude());
+    assertEquals(2, snapshot.id(snapshot.slotOf("AB10 6RN")));
+    int nearest = snapshot.nearest(57.1375, -2.1215, 1).get(0).slot();
+    assertEquals("AB10 6RN", snapshot.postcode(nearest));
+    assertTrue(restored.hasSnapshotFileOf(42L));
+    assertFalse(restored.hasSnapshotFileOf(43L));
+  }
+
+  @Test
+  void testSnapshotFile_StaleFallsBackToTable() throws Exception {
+    var path = tempDir.resolve("index.bin");
+    var written = new PostcodeIndex(jdbcTemplate, true, path.toString(), "heap");
+    written.reload();
+    written.writeSnapshotFile(42L);
+    insert(6, "AB11 6UL", 57.137546, -2.112233);
+
+    var restored = new PostcodeIndex(jdbcTemplate, true, path.toString(), "heap");
+    assertFalse(restored.hasSnapshotFileOf(42L));
+    restored.loadOnStartup();
+
+    assertEquals(6, restored.snapshot().size());
+  }
+
+  @Test
+  void testSnapshotFile_CorruptFallsBackToTable() throws Exception {
+    var path = tempDir.resolve("index.bin");
+    var written = new PostcodeIndex(jdbcTemplate, true, path.toString(), "heap");
+    written.reload();
+    written.writeSnapshotFile(42L);
+    byte[] bytes = Files.readAllBytes(path);
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(path, bytes);
+
+    var restored = new PostcodeIndex(jdbcTemplate, true, path.toString(), "heap");
+    restored.loadOnStartup();
+
+    var snapshot = restored.snapshot();
+    assertEquals(5, snapshot.size());
+    assertEquals(-2.114848, snapshot.toDto(snapshot.slotOf("AB10 1XG")).getLongitude());
+  }
+
+  @Test
+  void testSnapshotFile_DeletedByUpdate() {
+    var path = tempDir.resolve("index.bin");
+    var index = new PostcodeIndex(jdbcTemplate, true, path.toString(), "heap");
+    index.reload();
+    index.writeSnapshotFile(42L);
+
+    index.updateCoordinates("AB10 7JB", 58.0, 1.0);
+
+    assertFalse(Files.exists(path));
+    assertFalse(index.hasSnapshotFileOf(42L));
+  }
+
+  @Test
+  void testSnapshotFile_InvalidatedBeforeWrite() {
+    var path = tempDir.resolve("index.bin");
+    var index = new PostcodeIndex(jdbcTemplate, true, path.toString(), "heap");
+    index.reload();
+    index.writeSnapshotFile(42L);
+
+    // a write that commits and then crashes before the index hears of it
+    index.invalidateSnapshotFile();
+    jdbcTemplate.update("UPDATE UK_POSTCODE SET LATITUDE = 58.0 WHERE ID = 3");
+
+    var restored = new PostcodeIndex(jdbcTemplate, true, path.toString(), "heap");
+    assertFalse(restored.hasSnapshotFileOf(42L));
+    restored.loadOnStartup();
+    var snapshot = restored.snapshot();
+    assertEquals(58.0, snapshot.toDto(snapshot.slotOf("AB10 7JB")).getLatitude());
+  }
+
+  @Test
+  void testNearest() {
+    postcodeIndex.reload();
+    var snapshot = postcodeIndex.snapshot();
+
+    var nearest = snapshot.nearest(57.1375, -2.1215, 2);
+    assertEquals("AB10 6RN", snapshot.postcode(nearest.get(0).slot()));
+    assertEquals("AB10 1XG", snapshot.postcode(nearest.get(1).slot()));
+    assertTrue(nearest.get(0).distanceKm() < 0.1);
+  }
+
+  @Test
+  void testKey_Canonicalizes() {
+    assertEquals(PostcodeKeys.pack("AB10 1XG"), PostcodeKeys.key("ab101xg"));
+    assertEquals(PostcodeKeys.pack("AB10 1XG"), PostcodeKeys.key("AB10 1XG"));
+    assertEquals(PostcodeKeys.pack("M1 1AE"), PostcodeKeys.key("m11ae"));
+    assertEquals("EC1A 1BB", PostcodeKeys.canonicalize("ec1a\t1bb"));
+    assertEquals(PostcodeKeys.INVALID, PostcodeKeys.key("AB10 XXG"));
+    assertEquals(PostcodeKeys.INVALID, PostcodeKeys.key("1B10 1XG"));
+    assertEquals(PostcodeKeys.INVALID, PostcodeKeys.key("AB10-1XG"));
+    assertEquals(PostcodeKeys.INVALID, PostcodeKeys.key("ABC10 1XG"));
+    assertNull(PostcodeKeys.canonicalize("1XG"));
+  }
+
+  @Test
+  void testPack_PreservesOrder() {
+    assertTrue(PostcodeKeys.pack("AB10 1XG") < PostcodeKeys.pack("AB10 6RN"));
+    assertTrue(PostcodeKeys.pack("AB1") < PostcodeKeys.pack("AB10 1XG"));
+    assertEquals("SW1A 1AA", PostcodeKeys.unpack(PostcodeKeys.pack("SW1A 1AA")));
+  }
+
+  private void insert(long id, String postcode, double latitude, double longitude) {
+    jdbcTemplate.update("INSERT INTO UK_POSTCODE VALUES (?, ?, ?, ?, ?)", id, postcode,
+      PostcodeKeys.key(postcode), latitude, longitude);
+  }
+}
@@ -0,0 +1,84 @@
+package com.assessment.postcode.security;
+
+import com.assessment.postcode.config.SecurityConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiKeyAuthenticationFilterTest {
+
+  // SHA-256 of "dev-api-key"
+  private static final String DIGEST =
+    "6e1e4e1b8f8b36d08901cdb51b97841dfe20f5efd2fd2fd00768971408c46274";
+
+  private final ApiKeyVerifier verifier =
+    new ApiKeyVerifier(new String[] {DIGEST}, 100, Duration.ofMinutes(1));
+  private final ApiKeyAuthenticationFilter filter = new ApiKeyAuthenticationFilter(verifier);
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void testVerify() {
+    var authentication = verifier.verify("dev-api-key");
+
+    assertNotNull(authentication);
+    assertSame(authentication, verifier.verify("dev-api-key"));
+    assertTrue(authentication.getAuthorities().stream()
+      .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
+    assertNull(verifier.verify("wrong-key"));
+  }
+
+  @Test
+  void testApiKeyMode_RequiresKeys() {
+    var empty = new ApiKeyVerifier(new String[0], 100, Duration.ofMinutes(1));
+
+    assertFalse(empty.hasKeys());
+    assertNull(empty.verify("dev-api-key"));
+    assertThrows(IllegalStateException.class,
+      () -> new SecurityConfig().apiKeyFilterChain(null, empty));
+  }
+
+  @Test
+  void testFilter_ValidKey() throws Exception {
+    var request = new MockHttpServletRequest("GET", "/api/v1/postcodes/uk/AB10 1XG");
+    request.addHeader(ApiKeyAuthenticationFilter.HEADER, "dev-api-key");
+    var response = new MockHttpServletResponse();
+    var seen = new AtomicReference<Authentication>();
+
+    filter.doFilter(request, response, new MockFilterChain() {
+      @Override
+      public void doFilter(jakarta.servlet.ServletRequest rq, jakarta.servlet.ServletResponse rs) {
+        seen.set(SecurityContextHolder.getContext().getAuthentication());
+      }
+    });
+
+    assertEquals(200, response.getStatus());
+    assertNotNull(seen.get());
+    assertNull(request.getSession(false));
+  }
+
+  @Test
+  void testFilter_InvalidKey() throws Exception {
+    var request = new MockHttpServletRequest("GET", "/api/v1/postcodes/uk/AB10 1XG");
+    request.addHeader(ApiKeyAuthenticationFilter.HEADER, "wrong-key");
+    var response = new MockHttpServletResponse();
+    var chain = new MockFilterChain();
+
+    filter.doFilter(request, response, chain);
+
+    assertEquals(401, response.getStatus());
+    assertNull(chain.getRequest());
+  }
+}
@@ -0,0 +1,190 @@
+package com.assessment.postcode.service;
+
+import com.assessment.postcode.dto.UkPostcodeDto;
+import com.assessment.postcode.index.PostcodeKeys;
+import com.assessment.postcode.repository.UkPostcodeRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CoalescingPostcodeLoaderTest {
+
+  @Mock
+  private UkPostcodeRepo ukPostcodeRepo;
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+  private static final List<String> POSTCODES = List.of("AB10 1XG", "AB10 6RN", "AB10 7JB");
+  private static final String RUNNING = "AB11 5QN";
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void testLoad_ConcurrentSameKeyShareOneQuery() throws Exception {
+    var loader = new CoalescingPostcodeLoader(ukPostcodeRepo, Duration.ZERO, 1);
+    long key = PostcodeKeys.key(POSTCODES.get(0));
+    var release = new CountDownLatch(1);
+    when(ukPostcodeRepo.findByPostcodeKey(key)).thenAnswer(invocation -> {
+      release.await(10, TimeUnit.SECONDS);
+      return Optional.of(dto(1, POSTCODES.get(0)));
+    });
+
+    List<Future<Optional<UkPostcodeDto>>> results = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      results.add(executor.submit(() -> loader.load(key)));
+    }
+    awaitTrue(() -> loader.stats().coalesced() == 7);
+    release.countDown();
+
+    var first = results.get(0).get(10, TimeUnit.SECONDS).orElseThrow();
+    for (var result : results) {
+      var dto = result.get(10, TimeUnit.SECONDS).orElseThrow();
+      assertEquals(POSTCODES.get(0), dto.getPostcode());
+      if (result != results.get(0)) {
+        assertNotSame(first, dto);
+      }
+    }
+    verify(ukPostcodeRepo, times(1)).findByPostcodeKey(key);
+    assertEquals(new CoalescingPostcodeLoader.Stats(8, 7, 0, 1), loader.stats());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testLoad_DistinctKeysShareOneInQuery() throws Exception {
+    // the batch fills before the window ends, which releases it at once
+    var loader = new CoalescingPostcodeLoader(ukPostcodeRepo, Duration.ofSeconds(10), 3);
+    var release = new CountDownLatch(1);
+    var running = this.startRunningQuery(loader, release);
+    when(ukPostcodeRepo.findByPostcodeKeyIn(anyCollection()))
+      .thenReturn(List.of(dto(1, POSTCODES.get(0)), dto(2, POSTCODES.get(1))));
+
+    List<Future<Optional<UkPostcodeDto>>> results = new ArrayList<>();
+    for (String postcode : POSTCODES) {
+      results.add(executor.submit(() -> loader.load(PostcodeKeys.key(postcode))));
+    }
+
+    assertEquals(1, results.get(0).get(10, TimeUnit.SECONDS).orElseThrow().getId());
+    assertEquals(2, results.get(1).get(10, TimeUnit.SECONDS).orElseThrow().getId());
+    assertTrue(results.get(2).get(10, TimeUnit.SECONDS).isEmpty());
+    ArgumentCaptor<Collection<Long>> keys = ArgumentCaptor.forClass(Collection.class);
+    verify(ukPostcodeRepo).findByPostcodeKeyIn(keys.capture());
+    assertEquals(Set.of(PostcodeKeys.key(POSTCODES.get(0)), PostcodeKeys.key(POSTCODES.get(1)),
+      PostcodeKeys.key(POSTCODES.get(2))), Set.copyOf(keys.getValue()));
+    assertEquals(new CoalescingPostcodeLoader.Stats(4, 0, 3, 2), loader.stats());
+
+    release.countDown();
+    assertTrue(running.get(10, TimeUnit.SECONDS).isEmpty());
+  }
+
+  @Test
+  void testLoad_AloneIsNotDelayed() {
+    var loader = new CoalescingPostcodeLoader(ukPostcodeRepo, Duration.ofSeconds(10), 64);
+    long key = PostcodeKeys.key(POSTCODES.get(0));
+    when(ukPostcodeRepo.findByPostcodeKey(key)).thenReturn(Optional.empty());
+
+    long start = System.nanoTime();
+    assertTrue(loader.load(key).isEmpty());
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    assertEquals(new CoalescingPostcodeLoader.Stats(1, 0, 0, 1), loader.stats());
+  }
+
+  @Test
+  void testLoad_FailureReachesEveryCaller() throws Exception {
+    var loader = new CoalescingPostcodeLoader(ukPostcodeRepo, Duration.ofSeconds(10), 2);
+    var release = new CountDownLatch(1);
+    this.startRunningQuery(loader, release);
+    when(ukPostcodeRepo.findByPostcodeKeyIn(anyCollection()))
+      .thenThrow(new DataAccessResourceFailureException("Database unavailable"));
+
+    var first = executor.submit(() -> loader.load(PostcodeKeys.key(POSTCODES.get(0))));
+    var second = executor.submit(() -> loader.load(PostcodeKeys.key(POSTCODES.get(1))));
+
+    for (var result : List.of(first, second)) {
+      var e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+      assertInstanceOf(DataAccessResourceFailureException.class, e.getCause());
+    }
+    release.countDown();
+  }
+
+  @Test
+  void testLoad_InterruptedLeaderQueriesAtOnce() throws Exception {
+    var loader = new CoalescingPostcodeLoader(ukPostcodeRepo, Duration.ofSeconds(10), 64);
+    var release = new CountDownLatch(1);
+    this.startRunningQuery(loader, release);
+    long key = PostcodeKeys.key(POSTCODES.get(0));
+    when(ukPostcodeRepo.findByPostcodeKey(key)).thenAnswer(invocation -> {
+      // the flag is cleared while the query runs
+      assertFalse(Thread.currentThread().isInterrupted());
+      return Optional.of(dto(1, POSTCODES.get(0)));
+    });
+
+    var result = executor.submit(() -> {
+      Thread.currentThread().interrupt();
+      long start = System.nanoTime();
+      var dto = loader.load(key);
+      assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+      assertTrue(Thread.interrupted());
+      return dto;
+    });
+
+    assertEquals(1, result.get(10, TimeUnit.SECONDS).orElseThrow().getId());
+    release.countDown();
+  }
+
+  /**
+   * Starts a lookup whose query blocks until {@code release}, so later lookups batch up.
+   */
+  private Future<Optional<UkPostcodeDto>> startRunningQuery(CoalescingPostcodeLoader loader,
+    CountDownLatch release) throws InterruptedException {
+    long key = PostcodeKeys.key(RUNNING);
+    var started = new CountDownLatch(1);
+    when(ukPostcodeRepo.findByPostcodeKey(key)).thenAnswer(invocation -> {
+      started.countDown();
+      release.await(10, TimeUnit.SECONDS);
+      return Optional.empty();
+    });
+    var running = executor.submit(() -> loader.load(key));
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    return running;
+  }
+
+  private static UkPostcodeDto dto(long id, String postcode) {
+    return new UkPostcodeDto(id, postcode, 57.1, -2.1);
+  }
+
+  private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.nanoTime() < deadline, "timed out");
+      Thread.sleep(1);
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package com.assessment.postcode.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoDistanceTest {
+
+  // the bounds EQUIRECTANGULAR_MAX_RELATIVE_ERROR is documented for
+  private static final double MIN_LATITUDE = 49.8;
+  private static final double MAX_LATITUDE = 60.9;
+  private static final double MIN_LONGITUDE = -8.7;
+  private static final double MAX_LONGITUDE = 1.9;
+
+  @Test
+  void testEquirectangular_SampleDataset() throws IOException {
+    var points = readSampleDataset();
+    assertFalse(points.isEmpty());
+
+    for (double[] from : points) {
+      for (double[] to : points) {
+        double exact = GeoDistance.haversineKm(from[0], from[1], to[0], to[1]);
+        double fast = GeoDistance.equirectangularKm(from[0], from[1], to[0], to[1]);
+        assertEquals(exact, fast, exact * GeoDistance.EQUIRECTANGULAR_MAX_RELATIVE_ERROR);
+      }
+    }
+  }
+
+  @Test
+  void testEquirectangular_UkBounds() {
+    var random = new Random(42);
+    double maxRelativeError = 0;
+    double maxErrorWithin100Km = 0;
+    for (int i = 0; i < 1_000_000; i++) {
+      double latitude = MIN_LATITUDE + random.nextDouble() * (MAX_LATITUDE - MIN_LATITUDE);
+      double longitude = MIN_LONGITUDE + random.nextDouble() * (MAX_LONGITUDE - MIN_LONGITUDE);
+      double latitude2 = MIN_LATITUDE + random.nextDouble() * (MAX_LATITUDE - MIN_LATITUDE);
+      double longitude2 = MIN_LONGITUDE + random.nextDouble() * (MAX_LONGITUDE - MIN_LONGITUDE);
+      if (i % 2 == 0) {
+        // half of the pairs within about 100 km of each other
+        latitude2 = latitude + (latitude2 - latitude) / 12;
+        longitude2 = longitude + (longitude2 - longitude) / 12;
+      }
+
+      double exact = GeoDistance.haversineKm(latitude, longitude, latitude2, longitude2);
+      double error = Math.abs(
+        GeoDistance.equirectangularKm(latitude, longitude, latitude2, longitude2) - exact);
+      maxRelativeError = Math.max(maxRelativeError, error / exact);
+      if (exact <= 100) {
+        maxErrorWithin100Km = Math.max(maxErrorWithin100Km, error);
+      }
+    }
+
+    assertTrue(maxRelativeError <= GeoDistance.EQUIRECTANGULAR_MAX_RELATIVE_ERROR,
+      "relative error " + maxRelativeError);
+    assertTrue(maxErrorWithin100Km <= 0.004, "error " + maxErrorWithin100Km + " km");
+  }
+
+  @Test
+  void testEquirectangular_SamePoint() {
+    assertEquals(0.0, GeoDistance.equirectangularKm(57.144165, -2.114848, 57.144165, -2.114848));
+  }
+
+  @Test
+  void testCosDegrees() {
+    for (double latitude = -90; latitude <= 90; latitude += 0.0137) {
+      assertEquals(Math.cos(Math.toRadians(latitude)), GeoDistance.cosDegrees(latitude), 1e-7);
+    }
+    assertEquals(0.0, GeoDistance.cosDegrees(90), 1e-7);
+  }
+
+  private static List<double[]> readSampleDataset() throws IOException {
+    var points = new ArrayList<double[]>();
+    try (var reader = new BufferedReader(new InputStreamReader(
+      new ClassPathResource("ukpostcodes-short.csv").getInputStream(), StandardCharsets.UTF_8))) {
+      reader.readLine();
+      String line;
+      while ((line = reader.readLine()) != null) {
+        var fields = line.split(",");
+        if (fields.length == 4 && !fields[2].isBlank() && !fields[3].isBlank()) {
+          points.add(new double[] {Double.parseDouble(fields[2]), Double.parseDouble(fields[3])});
+        }
+      }
+    }
+    return points;
+  }
+}
@@ -0,0 +1,106 @@
+package com.assessment.postcode.service;
+
+import com.assessment.postcode.model.ImportApiRq;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostcodeImportServiceTest {
+
+  @Mock
+  private JobRepository jobRepository;
+  @Mock
+  private JobExplorer jobExplorer;
+  @Mock
+  private Job incrementalImportJob;
+  @TempDir
+  Path tempDir;
+
+  private Path importDirectory;
+  private PostcodeImportService postcodeImportService;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    importDirectory = Files.createDirectory(tempDir.resolve("imports"));
+    postcodeImportService = new PostcodeImportService(jobRepository, jobExplorer,
+      incrementalImportJob, new MockEnvironment(), importDirectory.toString());
+  }
+
+  @Test
+  void testStartImport_FileInImportDirectory() throws Exception {
+    Files.writeString(importDirectory.resolve("postcodes.csv"), "id,postcode,latitude,longitude\n");
+    // the path was accepted once the running-job check is reached
+    when(jobExplorer.findRunningJobExecutions(anyString())).thenReturn(Set.of(new JobExecution(1L)));
+
+    var exception = assertThrows(ResponseStatusException.class,
+      () -> postcodeImportService.startImport(ImportApiRq.builder().csvPath("postcodes.csv").build()));
+
+    assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+  }
+
+  @Test
+  void testStartImport_ZoneAssignmentRunning() throws Exception {
+    Files.writeString(importDirectory.resolve("postcodes.csv"), "id,postcode,latitude,longitude\n");
+    when(jobExplorer.findRunningJobExecutions(anyString())).thenReturn(Set.of());
+    when(jobExplorer.findRunningJobExecutions(ZoneService.ZONE_ASSIGNMENT_JOB))
+      .thenReturn(Set.of(new JobExecution(2L)));
+
+    var exception = assertThrows(ResponseStatusException.class,
+      () -> postcodeImportService.startImport(ImportApiRq.builder().csvPath("postcodes.csv").build()));
+
+    assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+    assertEquals("A zone assignment is running", exception.getReason());
+  }
+
+  @Test
+  void testStartImport_OutsideImportDirectory() throws Exception {
+    Files.writeString(tempDir.resolve("secret.csv"), "secret");
+
+    assertRejected("../secret.csv");
+    assertRejected(tempDir.resolve("secret.csv").toString());
+    assertRejected("/etc/passwd");
+    verifyNoInteractions(jobExplorer);
+  }
+
+  @Test
+  void testStartImport_SymbolicLinkOutOfImportDirectory() throws Exception {
+    var secret = Files.writeString(tempDir.resolve("secret.csv"), "secret");
+    Files.createSymbolicLink(importDirectory.resolve("link.csv"), secret);
+
+    assertRejected("link.csv");
+    verifyNoInteractions(jobExplorer);
+  }
+
+  @Test
+  void testStartImport_Missing() {
+    assertRejected("missing.csv");
+    assertRejected("ukpostcodes-short.csv");
+  }
+
+  private void assertRejected(String csvPath) {
+    var exception = assertThrows(ResponseStatusException.class,
+      () -> postcodeImportService.startImport(ImportApiRq.builder().csvPath(csvPath).build()));
+
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode(), csvPath);
+  }
+}
@@ -1,22 +1,40 @@
 package com.assessment.postcode.service;
 
+import com.assessment.postcode.cache.DistanceCache;
+import com.assessment.postcode.cache.PostcodeCache;
 import com.assessment.postcode.dto.UkPostcodeDto;
-import com.assessment.postcode.entity.UkPostcode;
-import com.assessment.postcode.mapper.PostcodeMapper;
+import com.assessment.postcode.index.FixedPoint;
+import com.assessment.postcode.index.GeoGrid;
+import com.assessment.postcode.index.PostcodeIndex;
+import com.assessment.postcode.index.PostcodeKeys;
+import com.assessment.postcode.model.CoordinatesRq;
 import com.assessment.postcode.model.GetDistanceApiRs;
+import com.assessment.postcode.model.PostcodeCoordinatesRq;
+import com.assessment.postcode.model.UpdateCoordFailureRs;
+import com.assessment.postcode.repository.UkPostcodeJdbcRepo;
 import com.assessment.postcode.repository.UkPostcodeRepo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,71 +43,152 @@ class PostcodeServiceTest {
   @Mock
   private UkPostcodeRepo ukPostcodeRepo;
   @Mock
-  private PostcodeMapper postcodeMapper;
-  @InjectMocks
+  private PostcodeIndex postcodeIndex;
+  @Spy
+  private PostcodeCache postcodeCache = new PostcodeCache(100, Duration.ofMinutes(1));
+  @Spy
+  private DistanceCache distanceCache = new DistanceCache(100);
   private PostcodeService postcodeService;
   private UkPostcodeDto postcodeDto;
-  private UkPostcode postcodeEntity;
   private static final String POSTCODE_1 = "SW1A 1AA";
+  private static final String UNKNOWN = "ZZ99 9ZZ";
 
   @BeforeEach
   void setUp() {
-    postcodeDto =
-      new UkPostcodeDto(1, POSTCODE_1, BigDecimal.valueOf(51.5074), BigDecimal.valueOf(-0.1278));
-    postcodeEntity =
-      new UkPostcode(1, POSTCODE_1, BigDecimal.valueOf(51.5074), BigDecimal.valueOf(-0.1278));
+    postcodeService = new PostcodeService(ukPostcodeRepo, postcodeIndex, postcodeCache,
+      distanceCache, new CoalescingPostcodeLoader(ukPostcodeRepo, Duration.ZERO, 1));
+    postcodeDto = new UkPostcodeDto(1, POSTCODE_1, 51.5074, -0.1278);
   }
 
   @Test
   void testGetByPostcode_Success() {
-    when(ukPostcodeRepo.findByPostcode(POSTCODE_1))
-      .thenReturn(Optional.of(postcodeEntity));
-    when(postcodeMapper.toDto(postcodeEntity)).thenReturn(postcodeDto);
+    when(ukPostcodeRepo.findByPostcodeKey(PostcodeKeys.key(POSTCODE_1)))
+      .thenReturn(Optional.of(postcodeDto));
     UkPostcodeDto result = postcodeService.getByPostcode(POSTCODE_1);
 
     assertNotNull(result);
     assertEquals(POSTCODE_1, result.getPostcode());
-    assertEquals(BigDecimal.valueOf(51.5074), result.getLatitude());
-    assertEquals(BigDecimal.valueOf(-0.1278), result.getLongitude());
+    assertEquals(51.5074, result.getLatitude());
+    assertEquals(-0.1278, result.getLongitude());
+  }
+
+  @Test
+  void testGetByPostcode_AnyCaseAndSpacing() {
+    when(ukPostcodeRepo.findByPostcodeKey(PostcodeKeys.key(POSTCODE_1)))
+      .thenReturn(Optional.of(postcodeDto));
+
+    postcodeService.getByPostcode(" sw1a1aa");
+    UkPostcodeDto result = postcodeService.getByPostcode("SW1A1AA");
+
+    verify(ukPostcodeRepo, times(1)).findByPostcodeKey(PostcodeKeys.key(POSTCODE_1));
+    assertEquals(POSTCODE_1, result.getPostcode());
+    assertEquals(1, postcodeCache.stats().hitCount());
+  }
+
+  @Test
+  void testGetByPostcode_NotAPostcode() {
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+      () -> postcodeService.getByPostcode("INVALID"));
+
+    assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    verifyNoInteractions(ukPostcodeRepo);
   }
 
   @Test
   void testGetByPostcode_NotFound() {
-    when(ukPostcodeRepo.findByPostcode("INVALID")).thenReturn(Optional.empty());
+    when(ukPostcodeRepo.findByPostcodeKey(PostcodeKeys.key(UNKNOWN)))
+      .thenReturn(Optional.empty());
 
     ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
-      postcodeService.getByPostcode("INVALID");
+      postcodeService.getByPostcode(UNKNOWN);
     });
 
     assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
     assertEquals("Entity Not Found", exception.getReason());
   }
 
+  @Test
+  void testGetByPostcode_Cached() {
+    when(ukPostcodeRepo.findByPostcodeKey(PostcodeKeys.key(POSTCODE_1)))
+      .thenReturn(Optional.of(postcodeDto));
+
+    postcodeService.getByPostcode(POSTCODE_1).setLatitude(0.0);
+    UkPostcodeDto result = postcodeService.getByPostcode(POSTCODE_1);
+
+    verify(ukPostcodeRepo, times(1)).findByPostcodeKey(PostcodeKeys.key(POSTCODE_1));
+    assertEquals(51.5074, result.getLatitude());
+    assertEquals(1, postcodeCache.stats().hitCount());
+  }
+
+  @Test
+  void testGetByPostcode_NotFoundCached() {
+    when(ukPostcodeRepo.findByPostcodeKey(PostcodeKeys.key(UNKNOWN)))
+      .thenReturn(Optional.empty());
+
+    assertThrows(ResponseStatusException.class, () -> postcodeService.getByPostcode(UNKNOWN));
+    assertThrows(ResponseStatusException.class, () -> postcodeService.getByPostcode(UNKNOWN));
+
+    verify(ukPostcodeRepo, times(1)).findByPostcodeKey(PostcodeKeys.key(UNKNOWN));
+  }
+
+  @Test
+  void testUpdateCoordinatesByPostcode_UpdatesCache() {
+    when(ukPostcodeRepo.findByPostcodeKey(PostcodeKeys.key(POSTCODE_1)))
+      .thenReturn(Optional.of(postcodeDto));
+    when(ukPostcodeRepo.updateCoordinates(any(UkPostcodeJdbcRepo.CoordinatesUpdate.class)))
+      .thenReturn(1);
+
+    postcodeService.updateCoordinatesByPostcode(POSTCODE_1, 51.5085, -0.1279);
+    UkPostcodeDto result = postcodeService.getByPostcode(POSTCODE_1);
+
+    assertEquals(51.5085, result.getLatitude());
+    assertEquals(-0.1279, result.getLongitude());
+  }
+
   @Test
   void testUpdateCoordinatesByPostcode_Success() {
-    when(ukPostcodeRepo.findByPostcode(POSTCODE_1))
-      .thenReturn(Optional.of(postcodeEntity));
-    when(postcodeMapper.toDto(postcodeEntity)).thenReturn(postcodeDto);
+    when(ukPostcodeRepo.findByPostcodeKey(PostcodeKeys.key(POSTCODE_1)))
+      .thenReturn(Optional.of(postcodeDto));
+    when(ukPostcodeRepo.updateCoordinates(any(UkPostcodeJdbcRepo.CoordinatesUpdate.class)))
+      .thenReturn(1);
     UkPostcodeDto updatedDto =
-      postcodeService.updateCoordinatesByPostcode(POSTCODE_1, new BigDecimal("51.5085"),
-        new BigDecimal("-0.1279"));
+      postcodeService.updateCoordinatesByPostcode(POSTCODE_1, 51.5085, -0.1279);
+
+    var inOrder = Mockito.inOrder(postcodeIndex, ukPostcodeRepo);
+    inOrder.verify(postcodeIndex).invalidateSnapshotFile();
+    inOrder.verify(ukPostcodeRepo).updateCoordinates(
+      new UkPostcodeJdbcRepo.CoordinatesUpdate(PostcodeKeys.key(POSTCODE_1), 51.5085, -0.1279));
 
     assertNotNull(updatedDto);
-    assertEquals(new BigDecimal("51.5085"), updatedDto.getLatitude());
-    assertEquals(new BigDecimal("-0.1279"), updatedDto.getLongitude());
+    assertEquals(51.5085, updatedDto.getLatitude());
+    assertEquals(-0.1279, updatedDto.getLongitude());
+  }
+
+  @Test
+  void testUpdateCoordinatesByPostcode_RowGone() {
+    when(ukPostcodeRepo.findByPostcodeKey(PostcodeKeys.key(POSTCODE_1)))
+      .thenReturn(Optional.of(postcodeDto));
+    postcodeService.getByPostcode(POSTCODE_1);
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+      () -> postcodeService.updateCoordinatesByPostcode(POSTCODE_1, 51.5085, -0.1279));
+
+    assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    assertEquals(51.5074, postcodeDto.getLatitude());
+    assertEquals(0, postcodeCache.size());
   }
 
   @Test
   void testUpdateCoordinatesByPostcode_InvalidLatitude() {
-    assertInvalidCoordinates(new BigDecimal("61.0"), new BigDecimal("-0.1279"));
+    assertInvalidCoordinates(61.0, -0.1279);
   }
 
   @Test
   void testUpdateCoordinatesByPostcode_InvalidLongitude() {
-    assertInvalidCoordinates(new BigDecimal("51.0"), new BigDecimal("2.0"));
+    assertInvalidCoordinates(51.0, 2.0);
   }
 
-  private void assertInvalidCoordinates(BigDecimal latitude, BigDecimal longitude) {
+  private void assertInvalidCoordinates(Double latitude, Double longitude) {
     ResponseStatusException exception = assertThrows(ResponseStatusException.class,
       () -> postcodeService.updateCoordinatesByPostcode(PostcodeServiceTest.POSTCODE_1, latitude,
         longitude));
@@ -100,23 +199,279 @@ class PostcodeServiceTest {
       exception.getReason());
   }
 
+  @Test
+  void testUpdateCoordinates_ReportsFailedRows() {
+    when(ukPostcodeRepo.updateCoordinates(anyList())).thenReturn(new int[] {1, 0});
+    when(ukPostcodeRepo.findByPostcodeKey(PostcodeKeys.key(POSTCODE_1)))
+      .thenReturn(Optional.of(postcodeDto));
+    postcodeService.getByPostcode(POSTCODE_1);
+
+    var result = postcodeService.updateCoordinates(List.of(
+      new PostcodeCoordinatesRq("sw1a1aa", 51.5085, -0.1279),
+      new PostcodeCoordinatesRq("INVALID", 51.5085, -0.1279),
+      new PostcodeCoordinatesRq(UNKNOWN, 51.5085, -0.1279),
+      new PostcodeCoordinatesRq("SW1A 2AA", 61.0, -0.1279)));
+
+    verify(ukPostcodeRepo).updateCoordinates(List.of(
+      new UkPostcodeJdbcRepo.CoordinatesUpdate(PostcodeKeys.key(POSTCODE_1), 51.5085, -0.1279),
+      new UkPostcodeJdbcRepo.CoordinatesUpdate(PostcodeKeys.key(UNKNOWN), 51.5085, -0.1279)));
+    verify(postcodeIndex).updateCoordinates(POSTCODE_1, 51.5085, -0.1279);
+    assertEquals(0, postcodeCache.size());
+    assertEquals(1, result.getUpdated());
+    assertEquals(List.of(1, 2, 3),
+      result.getFailures().stream().map(UpdateCoordFailureRs::getIndex).toList());
+    assertEquals("Entity Not Found", result.getFailures().get(1).getReason());
+  }
+
   @Test
   void testConstructPostcodesDistance() {
-    when(ukPostcodeRepo.findByPostcode(POSTCODE_1))
-      .thenReturn(Optional.of(postcodeEntity));
-    when(postcodeMapper.toDto(postcodeEntity)).thenReturn(postcodeDto);
-    UkPostcodeDto otherDto =
-      new UkPostcodeDto(2, "SW1A 2AA", BigDecimal.valueOf(40.5074), BigDecimal.valueOf(-1.1278));
-    UkPostcode otherEntity =
-      new UkPostcode(2, "SW1A 2AA", BigDecimal.valueOf(40.5074), BigDecimal.valueOf(-1.1278));
-    when(ukPostcodeRepo.findByPostcode("SW1A 2AA")).thenReturn(Optional.of(otherEntity));
-    when(postcodeMapper.toDto(otherEntity)).thenReturn(otherDto);
-    GetDistanceApiRs result = postcodeService.constructPostcodesDistance(POSTCODE_1, "SW1A 2AA");
+    when(ukPostcodeRepo.findByPostcodeKey(PostcodeKeys.key(POSTCODE_1)))
+      .thenReturn(Optional.of(postcodeDto));
+    UkPostcodeDto otherDto = new UkPostcodeDto(2, "SW1A 2AA", 40.5074, -1.1278);
+    when(ukPostcodeRepo.findByPostcodeKey(PostcodeKeys.key("SW1A 2AA")))
+      .thenReturn(Optional.of(otherDto));
+    GetDistanceApiRs result = postcodeService.constructPostcodesDistance(POSTCODE_1, "SW1A 2AA", null);
 
     assertNotNull(result);
     assertEquals(POSTCODE_1, result.getPostcode1().getPostcode());
     assertEquals("SW1A 2AA", result.getPostcode2().getPostcode());
     assertEquals("km", result.getDistance().getUnit());
-    assertEquals(1225.5484327780487, result.getDistance().getValue().doubleValue());
+    assertEquals(1225.5484327780487, result.getDistance().getValue());
+  }
+
+  @Test
+  void testConstructPostcodesDistance_CachedInEitherOrder() {
+    UkPostcodeDto otherDto =
+      new UkPostcodeDto(2, "SW1A 2AA", 40.5074, -1.1278);
+    when(ukPostcodeRepo.findByPostcodeKey(PostcodeKeys.key(POSTCODE_1)))
+      .thenReturn(Optional.of(postcodeDto));
+    when(ukPostcodeRepo.findByPostcodeKey(PostcodeKeys.key("SW1A 2AA")))
+      .thenReturn(Optional.of(otherDto));
+
+    postcodeService.constructPostcodesDistance(POSTCODE_1, "SW1A 2AA", null);
+    postcodeCache.invalidateAll();
+    GetDistanceApiRs result = postcodeService.constructPostcodesDistance("SW1A 2AA", POSTCODE_1, null);
+
+    verify(ukPostcodeRepo, times(1)).findByPostcodeKey(PostcodeKeys.key(POSTCODE_1));
+    assertEquals("SW1A 2AA", result.getPostcode1().getPostcode());
+    assertEquals(POSTCODE_1, result.getPostcode2().getPostcode());
+    assertEquals(1225.5484327780487, result.getDistance().getValue());
+    assertEquals(1, distanceCache.stats().hitCount());
+  }
+
+  @Test
+  void testConstructPostcodesDistance_InvalidatedByUpdate() {
+    UkPostcodeDto otherDto =
+      new UkPostcodeDto(2, "SW1A 2AA", 51.5034, -0.1276);
+    when(ukPostcodeRepo.findByPostcodeKey(PostcodeKeys.key(POSTCODE_1)))
+      .thenReturn(Optional.of(postcodeDto));
+    when(ukPostcodeRepo.findByPostcodeKey(PostcodeKeys.key("SW1A 2AA")))
+      .thenReturn(Optional.of(otherDto));
+    when(ukPostcodeRepo.updateCoordinates(any(UkPostcodeJdbcRepo.CoordinatesUpdate.class)))
+      .thenReturn(1);
+
+    var before = postcodeService.constructPostcodesDistance(POSTCODE_1, "SW1A 2AA", null);
+    postcodeService.updateCoordinatesByPostcode("SW1A 2AA", 51.5074, -0.1278);
+    var after = postcodeService.constructPostcodesDistance(POSTCODE_1, "SW1A 2AA", null);
+
+    assertTrue(before.getDistance().getValue() > 0);
+    assertEquals(0.0, after.getDistance().getValue());
+  }
+
+  @Test
+  void testConstructPostcodesDistance_Fast() {
+    UkPostcodeDto otherDto = new UkPostcodeDto(2, "EH1 1YZ", 55.9521, -3.1899);
+    when(ukPostcodeRepo.findByPostcodeKey(PostcodeKeys.key(POSTCODE_1)))
+      .thenReturn(Optional.of(postcodeDto));
+    when(ukPostcodeRepo.findByPostcodeKey(PostcodeKeys.key("EH1 1YZ")))
+      .thenReturn(Optional.of(otherDto));
+
+    var exact = postcodeService.constructPostcodesDistance(POSTCODE_1, "EH1 1YZ", "exact");
+    var fast = postcodeService.constructPostcodesDistance(POSTCODE_1, "EH1 1YZ", "FAST");
+
+    assertEquals("exact", exact.getMode());
+    assertEquals("fast", fast.getMode());
+    // cached per mode, so the fast distance is not the cached exact one
+    assertNotEquals(exact.getDistance().getValue(), fast.getDistance().getValue());
+    assertEquals(exact.getDistance().getValue(), fast.getDistance().getValue(),
+      exact.getDistance().getValue() * GeoDistance.EQUIRECTANGULAR_MAX_RELATIVE_ERROR);
+  }
+
+  @Test
+  void testConstructPostcodesDistance_InvalidMode() {
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+      () -> postcodeService.constructPostcodesDistance(POSTCODE_1, "SW1A 2AA", "approximate"));
+
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    assertEquals("Mode must be exact or fast.", exception.getReason());
+  }
+
+  @Test
+  void testFindPostcodesByOutcode() {
+    var range = PostcodeKeys.outcodeRange("SW1A");
+    when(ukPostcodeRepo.findByPostcodeKeyBetweenOrderByPostcodeKey(range.from(), range.to(),
+      Limit.of(10))).thenReturn(List.of(postcodeDto));
+
+    var result = postcodeService.findPostcodesByOutcode("sw1a", 10);
+
+    assertEquals("SW1A", result.getPrefix());
+    assertEquals(List.of(postcodeDto), result.getPostcodes());
+  }
+
+  @Test
+  void testFindPostcodesBySector_Invalid() {
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+      () -> postcodeService.findPostcodesBySector("SW1A", 10));
+
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+  }
+
+  @Test
+  void testLookupPostcodes_ReportsMisses() {
+    when(ukPostcodeRepo.findByPostcodeKeyIn(anyCollection())).thenReturn(List.of(postcodeDto));
+
+    var lookup =
+      postcodeService.lookupPostcodes(List.of("sw1a1aa", UNKNOWN, "INVALID", POSTCODE_1));
+    var results = new UkPostcodeDto[4];
+    lookup.resolve(0, results);
+
+    verify(ukPostcodeRepo, times(1)).findByPostcodeKeyIn(
+      Set.of(PostcodeKeys.key(POSTCODE_1), PostcodeKeys.key(UNKNOWN)));
+    assertArrayEquals(new UkPostcodeDto[] {postcodeDto, null, null, postcodeDto}, results);
+  }
+
+  @Test
+  void testLookupPostcodes_TooMany() {
+    var postcodes = Collections.nCopies(PostcodeService.MAX_BATCH_LOOKUP_POSTCODES + 1, POSTCODE_1);
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+      () -> postcodeService.lookupPostcodes(postcodes));
+
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+  }
+
+  @Test
+  void testConstructDistanceMatrix() {
+    UkPostcodeDto otherDto =
+      new UkPostcodeDto(2, "SW1A 2AA", 40.5074, -1.1278);
+    when(ukPostcodeRepo.findByPostcodeKeyIn(anyCollection()))
+      .thenReturn(List.of(postcodeDto, otherDto));
+
+    var matrix = postcodeService.constructDistanceMatrix(List.of(POSTCODE_1, "SW1A 2AA"),
+      List.of("SW1A 2AA"), null);
+    var row = new double[1];
+
+    matrix.computeRow(0, row);
+    assertEquals(1225.5484327780487, row[0]);
+    matrix.computeRow(1, row);
+    assertEquals(0.0, row[0]);
+  }
+
+  @Test
+  void testConstructDistanceMatrix_MixedSpellingsWithoutIndex() {
+    UkPostcodeDto otherDto =
+      new UkPostcodeDto(2, "SW1A 2AA", 40.5074, -1.1278);
+    when(ukPostcodeRepo.findByPostcodeKeyIn(anyCollection()))
+      .thenReturn(List.of(postcodeDto, otherDto));
+
+    var matrix = postcodeService.constructDistanceMatrix(List.of("sw1a1aa", POSTCODE_1),
+      List.of("SW1A 2AA", " sw1a 1AA "), null);
+    var row = new double[2];
+
+    matrix.computeRow(0, row);
+    assertEquals(1225.5484327780487, row[0]);
+    assertEquals(0.0, row[1]);
+    matrix.computeRow(1, row);
+    assertEquals(1225.5484327780487, row[0]);
+    assertEquals(0.0, row[1]);
+    verify(ukPostcodeRepo).findByPostcodeKeyIn(Set.of(PostcodeKeys.key(POSTCODE_1),
+      PostcodeKeys.key("SW1A 2AA")));
+  }
+
+  @Test
+  void testConstructDistanceMatrix_NotFound() {
+    when(ukPostcodeRepo.findByPostcodeKeyIn(anyCollection())).thenReturn(List.of(postcodeDto));
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+      () -> postcodeService.constructDistanceMatrix(List.of(POSTCODE_1), List.of("INVALID"), null));
+
+    assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    assertEquals("Entity Not Found: INVALID", exception.getReason());
+  }
+
+  @Test
+  void testConstructDistanceMatrix_WithoutCoordinates() {
+    UkPostcodeDto noCoordinatesDto = new UkPostcodeDto(2, "SW1A 2AA", null, null);
+    when(ukPostcodeRepo.findByPostcodeKeyIn(anyCollection()))
+      .thenReturn(List.of(postcodeDto, noCoordinatesDto));
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+      () -> postcodeService.constructDistanceMatrix(List.of(POSTCODE_1), List.of("SW1A 2AA"), null));
+
+    assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    assertEquals("Entity Not Found: SW1A 2AA", exception.getReason());
+  }
+
+  @Test
+  void testConstructDistanceMatrix_WithoutCoordinatesInIndex() {
+    var snapshot = Mockito.mock(PostcodeIndex.Snapshot.class);
+    when(postcodeIndex.snapshot()).thenReturn(snapshot);
+    when(snapshot.slotOf(POSTCODE_1)).thenReturn(0);
+    when(snapshot.slotOf("SW1A 2AA")).thenReturn(1);
+    when(snapshot.coordinates(0)).thenReturn(FixedPoint.pack(
+      FixedPoint.toMicros(51.5074), FixedPoint.toMicros(-0.1278)));
+    when(snapshot.coordinates(1)).thenReturn(FixedPoint.pack(FixedPoint.NONE, FixedPoint.NONE));
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+      () -> postcodeService.constructDistanceMatrix(List.of(POSTCODE_1), List.of("SW1A 2AA"), null));
+
+    assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    assertEquals("Entity Not Found: SW1A 2AA", exception.getReason());
+    verifyNoInteractions(ukPostcodeRepo);
+  }
+
+  @Test
+  void testConstructDistanceMatrix_TooManyPostcodes() {
+    var origins = Collections.nCopies(PostcodeService.MAX_MATRIX_POSTCODES + 1, POSTCODE_1);
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+      () -> postcodeService.constructDistanceMatrix(origins, List.of(POSTCODE_1), null));
+
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+  }
+
+  @Test
+  void testFindNearestPostcodes_IndexNotLoaded() {
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+      () -> postcodeService.findNearestPostcodes(null, 51.5, -0.1, 10));
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+  }
+
+  @Test
+  void testReverseGeocodeBatch_ReportsPointsOutsideBounds() {
+    var snapshot = Mockito.mock(PostcodeIndex.Snapshot.class);
+    when(postcodeIndex.snapshot()).thenReturn(snapshot);
+    when(snapshot.nearest(51.501, -0.141, 1)).thenReturn(List.of(new GeoGrid.Neighbour(0, 0.1)));
+    when(snapshot.toDto(0)).thenReturn(postcodeDto);
+
+    var results = postcodeService.reverseGeocode(List.of(new CoordinatesRq(51.501, -0.141),
+      new CoordinatesRq(100.0, 0.0))).getResults();
+
+    assertEquals(2, results.size());
+    assertTrue(results.get(0).isFound());
+    assertEquals(POSTCODE_1, results.get(0).getPostcode().getPostcode());
+    assertEquals(0.1, results.get(0).getDistance().getValue());
+    assertFalse(results.get(1).isFound());
+    assertEquals(100.0, results.get(1).getLatitude());
+    assertNotNull(results.get(1).getReason());
+  }
+
+  @Test
+  void testFindPostcodesWithinRadius_InvalidRadius() {
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+      () -> postcodeService.findPostcodesWithinRadius(null, 51.5, -0.1, 0, 10));
+
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
   }
 }
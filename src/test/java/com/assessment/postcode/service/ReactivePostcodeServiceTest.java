@@ -0,0 +1,69 @@
+package com.assessment.postcode.service;
+
+import com.assessment.postcode.dto.UkPostcodeDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactivePostcodeServiceTest {
+
+  @Mock
+  private PostcodeService postcodeService;
+  private ReactivePostcodeService reactivePostcodeService;
+
+  private static final String POSTCODE_1 = "SW1A 1AA";
+
+  @AfterEach
+  void tearDown() {
+    reactivePostcodeService.destroy();
+  }
+
+  @Test
+  void testGetByPostcode_RunsOffTheCallingThread() {
+    reactivePostcodeService = new ReactivePostcodeService(postcodeService, 1, 1);
+    when(postcodeService.getByPostcode(POSTCODE_1)).thenAnswer(invocation ->
+      new UkPostcodeDto(1, Thread.currentThread().getName(), 51.5074, -0.1278));
+
+    var dto = reactivePostcodeService.getByPostcode(POSTCODE_1).block(Duration.ofSeconds(5));
+
+    assertNotNull(dto);
+    assertTrue(dto.getPostcode().startsWith("postcode-jdbc"), dto.getPostcode());
+  }
+
+  @Test
+  void testGetByPostcode_QueueFull() throws Exception {
+    reactivePostcodeService = new ReactivePostcodeService(postcodeService, 1, 1);
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    when(postcodeService.getByPostcode(anyString())).thenAnswer(invocation -> {
+      started.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return new UkPostcodeDto(1, POSTCODE_1, 51.5074, -0.1278);
+    });
+
+    // one query runs, one waits, and the third finds the queue full
+    var running = reactivePostcodeService.getByPostcode(POSTCODE_1).toFuture();
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    var waiting = reactivePostcodeService.getByPostcode(POSTCODE_1).toFuture();
+    var exception = assertThrows(ResponseStatusException.class,
+      () -> reactivePostcodeService.getByPostcode(POSTCODE_1).block(Duration.ofSeconds(5)));
+    release.countDown();
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+    assertNotNull(running.get(5, TimeUnit.SECONDS));
+    assertNotNull(waiting.get(5, TimeUnit.SECONDS));
+  }
+}
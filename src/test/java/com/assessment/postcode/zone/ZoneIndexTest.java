@@ -0,0 +1,115 @@
+package com.assessment.postcode.zone;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZoneIndexTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testClassify_SampleZones() throws IOException {
+    var zoneIndex = new ZoneIndex(objectMapper, "zones-sample.geojson");
+
+    assertTrue(zoneIndex.isEnabled());
+    assertEquals(3, zoneIndex.zones().size());
+    // inside both the centre and the city; the centre comes first in the file
+    assertEquals("ABD-CENTRE", zoneIndex.classify(57.144, -2.114).getId());
+    assertEquals("ABD-CITY", zoneIndex.classify(57.100, -2.150).getId());
+    // in the hole of the shire's first polygon, but also in its second polygon
+    assertEquals("ABD-SHIRE", zoneIndex.classify(57.050, -2.300).getId());
+    assertEquals("ABD-SHIRE", zoneIndex.classify(57.450, -2.400).getId());
+    assertNull(zoneIndex.classify(57.350, -2.400));
+    assertNull(zoneIndex.classify(51.500, -0.120));
+  }
+
+  @Test
+  void testClassify_MatchesBruteForce() throws IOException {
+    var zoneIndex = new ZoneIndex(objectMapper, "zones-sample.geojson");
+
+    var random = new Random(42);
+    int classified = 0;
+    for (int i = 0; i < 100_000; i++) {
+      double latitude = 56.95 + random.nextDouble() * 0.6;
+      double longitude = -2.55 + random.nextDouble() * 0.6;
+      Zone expected = zoneIndex.zones().stream()
+        .filter(zone -> zone.contains(latitude, longitude))
+        .findFirst()
+        .orElse(null);
+      assertSame(expected, zoneIndex.classify(latitude, longitude),
+        () -> latitude + ", " + longitude);
+      if (expected != null) {
+        classified++;
+      }
+    }
+    assertTrue(classified > 0);
+  }
+
+  @Test
+  void testClassify_Disabled() throws IOException {
+    var zoneIndex = new ZoneIndex(objectMapper, "");
+
+    assertFalse(zoneIndex.isEnabled());
+    assertTrue(zoneIndex.zones().isEmpty());
+    assertNull(zoneIndex.classify(57.144, -2.114));
+  }
+
+  @Test
+  void testLoad_SingleFeatureFile() throws IOException {
+    var path = write("""
+      {"type": "Feature", "id": "Z1", "properties": {"name": "Square"},
+       "geometry": {"type": "Polygon",
+                    "coordinates": [[[0, 50], [1, 50], [1, 51], [0, 51]]]}}
+      """);
+
+    var zoneIndex = new ZoneIndex(objectMapper, path.toString());
+
+    assertEquals("Z1", zoneIndex.classify(50.5, 0.5).getId());
+    assertEquals("Square", zoneIndex.classify(50.5, 0.5).getName());
+    assertNull(zoneIndex.classify(50.5, 1.5));
+  }
+
+  @Test
+  void testLoad_DuplicateId() throws IOException {
+    var square = """
+      {"type": "Feature", "properties": {"id": "Z1"},
+       "geometry": {"type": "Polygon", "coordinates": [[[0, 50], [1, 50], [1, 51]]]}}""";
+    var path = write("{\"type\": \"FeatureCollection\", \"features\": [" + square + ", " + square
+      + "]}");
+
+    var e = assertThrows(IOException.class, () -> new ZoneIndex(objectMapper, path.toString()));
+    assertTrue(e.getMessage().contains("Z1"));
+  }
+
+  @Test
+  void testLoad_InvalidGeometry() throws IOException {
+    var path = write("""
+      {"type": "Feature", "properties": {"id": "Z1"},
+       "geometry": {"type": "Point", "coordinates": [0, 50]}}
+      """);
+
+    assertThrows(IOException.class, () -> new ZoneIndex(objectMapper, path.toString()));
+  }
+
+  @Test
+  void testLoad_Missing() {
+    assertThrows(FileNotFoundException.class,
+      () -> new ZoneIndex(objectMapper, tempDir.resolve("missing.geojson").toString()));
+  }
+
+  private Path write(String json) throws IOException {
+    return Files.writeString(tempDir.resolve("zones.geojson"), json);
+  }
+}